@@ -0,0 +1,32 @@
+package com.prefixmatches.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler, which adds allocation rate and
+ * bytes allocated per operation to the throughput. Accepts the usual JMH
+ * options, for example a benchmark regexp, -p kind=RWAY or
+ * -p words=/path/to/words.txt; without words the benchmarks use random
+ * words with a fixed seed.
+ *
+ * @author Denys Storozhenko
+ */
+public final class Benchmarks {
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args)
+            throws CommandLineOptionException, RunnerException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.prefixmatches.benchmarks;
+
+import com.prefixmatches.trie.Trie;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of contains() for words of the dictionary and for absent
+ * words, which share a long prefix with a word of the dictionary.
+ *
+ * @author Denys Storozhenko
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainsBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param
+    private TrieKind kind;
+
+    @Param("")
+    private String words;
+
+    private Path dir;
+    private Trie trie;
+    private String[] hits = new String[QUERIES];
+    private String[] misses = new String[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> dictionary = Words.load(words);
+        dir = Files.createTempDirectory("trie");
+        trie = kind.build(dictionary, dir);
+        Random random = new Random(7);
+        for (int i = 0; i < QUERIES; i++) {
+            hits[i] = dictionary.get(random.nextInt(dictionary.size()));
+            String miss = hits[i];
+            while (Collections.binarySearch(dictionary, miss) >= 0) {
+                miss = miss + (char) ('a' + random.nextInt(26));
+            }
+            misses[i] = miss;
+        }
+    }
+
+    @TearDown
+    public void release() throws IOException {
+        TrieKind.release(trie, dir);
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        next = (next + 1) & (QUERIES - 1);
+        return trie.contains(hits[next]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        next = (next + 1) & (QUERIES - 1);
+        return trie.contains(misses[next]);
+    }
+}
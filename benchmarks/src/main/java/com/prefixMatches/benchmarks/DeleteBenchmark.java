@@ -0,0 +1,78 @@
+package com.prefixmatches.benchmarks;
+
+import com.prefixmatches.trie.Trie;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to delete a batch of random words. Every iteration starts with a
+ * fresh dictionary, so that each call deletes a word, which is present.
+ * Only tries, which support delete(), are measured.
+ *
+ * @author Denys Storozhenko
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = DeleteBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = DeleteBenchmark.BATCH)
+@Fork(1)
+public class DeleteBenchmark {
+    static final int BATCH = 10000;
+
+    @Param({"RWAY", "RADIX", "ARRAY", "OFF_HEAP", "SPARSE", "TST",
+            "CONCURRENT", "COPY_ON_WRITE", "DURABLE"})
+    private TrieKind kind;
+
+    @Param("")
+    private String words;
+
+    private List<String> dictionary;
+    private List<String> victims;
+    private Path dir;
+    private Trie trie;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        dictionary = Words.load(words);
+        victims = new ArrayList<>(dictionary);
+        Collections.shuffle(victims, new Random(7));
+    }
+
+    @Setup(Level.Iteration)
+    public void build() throws IOException {
+        dir = Files.createTempDirectory("trie");
+        trie = kind.build(dictionary, dir);
+        next = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void release() throws IOException {
+        TrieKind.release(trie, dir);
+    }
+
+    @Benchmark
+    public boolean delete() {
+        return trie.delete(victims.get(next++));
+    }
+}
@@ -0,0 +1,66 @@
+package com.prefixmatches.benchmarks;
+
+import com.prefixmatches.trie.Trie;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to build a dictionary of all words from scratch.
+ *
+ * @author Denys Storozhenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LoadBenchmark {
+    @Param
+    private TrieKind kind;
+
+    @Param("")
+    private String words;
+
+    private List<String> dictionary;
+    private Path dir;
+    private Trie trie;
+
+    @Setup
+    public void setUp() throws IOException {
+        dictionary = Words.load(words);
+    }
+
+    @Setup(Level.Invocation)
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("trie");
+    }
+
+    @TearDown(Level.Invocation)
+    public void release() throws IOException {
+        TrieKind.release(trie, dir);
+        trie = null;
+    }
+
+    @Benchmark
+    public Trie load() throws IOException {
+        trie = kind.build(dictionary, dir);
+        return trie;
+    }
+}
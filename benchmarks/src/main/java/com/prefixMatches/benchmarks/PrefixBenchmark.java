@@ -0,0 +1,84 @@
+package com.prefixmatches.benchmarks;
+
+import com.prefixmatches.trie.Trie;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of wordsWithPrefix() as PrefixMatches queries it: words up to
+ * k letters longer than the prefix. Prefixes are taken from random words of
+ * the dictionary, so short prefixes match many words.
+ *
+ * @author Denys Storozhenko
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param
+    private TrieKind kind;
+
+    @Param({"2", "3", "5"})
+    private int prefixLength;
+
+    @Param({"3", "10"})
+    private int k;
+
+    @Param("")
+    private String words;
+
+    private Path dir;
+    private Trie trie;
+    private String[] prefixes = new String[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> dictionary = Words.load(words);
+        dir = Files.createTempDirectory("trie");
+        trie = kind.build(dictionary, dir);
+        Random random = new Random(7);
+        for (int i = 0; i < QUERIES; ) {
+            String word = dictionary.get(random.nextInt(dictionary.size()));
+            if (word.length() >= prefixLength) {
+                prefixes[i++] = word.substring(0, prefixLength);
+            }
+        }
+    }
+
+    @TearDown
+    public void release() throws IOException {
+        TrieKind.release(trie, dir);
+    }
+
+    @Benchmark
+    public void wordsWithPrefix(Blackhole blackhole) {
+        next = (next + 1) & (QUERIES - 1);
+        for (String word : trie.wordsWithPrefix(prefixes[next],
+                prefixLength + k - 1)) {
+            blackhole.consume(word);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.prefixmatches.benchmarks;
+
+import com.prefixmatches.trie.Trie;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of a job over the whole dictionary, sequential and parallel, which
+ * shows how wordStream() of a trie scales with the cores.
+ *
+ * @author Denys Storozhenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamBenchmark {
+    @Param
+    private TrieKind kind;
+
+    @Param("")
+    private String words;
+
+    private Path dir;
+    private Trie trie;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("trie");
+        trie = kind.build(Words.load(words), dir);
+    }
+
+    @TearDown
+    public void release() throws IOException {
+        TrieKind.release(trie, dir);
+    }
+
+    @Benchmark
+    public long sequential() {
+        return trie.wordStream().mapToLong(String::hashCode).sum();
+    }
+
+    @Benchmark
+    public long parallel() {
+        return trie.wordStream().parallel().mapToLong(String::hashCode).sum();
+    }
+}
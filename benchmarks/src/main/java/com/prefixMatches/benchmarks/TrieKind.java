@@ -0,0 +1,156 @@
+package com.prefixmatches.benchmarks;
+
+import com.prefixmatches.PrefixMatches;
+import com.prefixmatches.trie.ArrayTrie;
+import com.prefixmatches.trie.ConcurrentTrie;
+import com.prefixmatches.trie.CopyOnWriteTrie;
+import com.prefixmatches.trie.Dawg;
+import com.prefixmatches.trie.DurableTrie;
+import com.prefixmatches.trie.FrozenTrie;
+import com.prefixmatches.trie.MappedTrie;
+import com.prefixmatches.trie.OffHeapTrie;
+import com.prefixmatches.trie.RWayTrie;
+import com.prefixmatches.trie.RadixTrie;
+import com.prefixmatches.trie.SparseTrie;
+import com.prefixmatches.trie.TernarySearchTrie;
+import com.prefixmatches.trie.Trie;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Every implementation of the (@code Trie), built from sorted words with
+ * their length as weight by PrefixMatches.load(), so a rWayTrie is loaded
+ * by addAll() in batches and other tries word by word, like a parsed file.
+ * Tries, which keep files, keep them in the given directory.
+ *
+ * @author Denys Storozhenko
+ */
+public enum TrieKind {
+    RWAY {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new RWayTrie(), words);
+        }
+    },
+    RADIX {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new RadixTrie(), words);
+        }
+    },
+    ARRAY {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new ArrayTrie(), words);
+        }
+    },
+    OFF_HEAP {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new OffHeapTrie(), words);
+        }
+    },
+    SPARSE {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new SparseTrie(), words);
+        }
+    },
+    TST {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new TernarySearchTrie(), words);
+        }
+    },
+    DAWG {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new Dawg(), words);
+        }
+    },
+    CONCURRENT {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new ConcurrentTrie(), words);
+        }
+    },
+    COPY_ON_WRITE {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(new CopyOnWriteTrie(), words);
+        }
+    },
+    DURABLE {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            return load(DurableTrie.open(dir), words);
+        }
+    },
+    FROZEN {
+        @Override
+        public Trie build(List<String> words, Path dir) {
+            return new FrozenTrie(words);
+        }
+    },
+    MAPPED {
+        @Override
+        public Trie build(List<String> words, Path dir) throws IOException {
+            Path file = dir.resolve("trie.bin");
+            ((RWayTrie) RWAY.build(words, dir)).save(file);
+            return MappedTrie.open(file);
+        }
+    };
+
+    /**
+     * Builds a trie of the words.
+     *
+     * @param words sorted words of the dictionary, without duplicates.
+     * @param dir   empty directory for files of the trie.
+     * @return the trie.
+     * @throws IOException if files of the trie can not be written.
+     */
+    public abstract Trie build(List<String> words, Path dir)
+            throws IOException;
+
+    /**
+     * Returns whether the trie supports delete().
+     *
+     * @return true if words can be deleted.
+     */
+    public boolean isMutable() {
+        return this != DAWG && this != FROZEN && this != MAPPED;
+    }
+
+    private static Trie load(Trie trie, List<String> words)
+            throws IOException {
+        new PrefixMatches(trie).load(consumer -> {
+            words.forEach(consumer);
+            return words.size();
+        });
+        return trie;
+    }
+
+    /**
+     * Closes the trie, if it keeps files, and deletes the directory.
+     *
+     * @param trie trie built by build().
+     * @param dir  directory passed to build().
+     * @throws IOException if the directory can not be deleted.
+     */
+    public static void release(Trie trie, Path dir) throws IOException {
+        if (trie instanceof Closeable) {
+            ((Closeable) trie).close();
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(
+                    Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.prefixmatches.benchmarks;
+
+import com.prefixmatches.MappedFileLoader;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Words for the benchmarks: the words of a file, parsed as by PrefixMatches,
+ * or random words with a seed, so that every run sees the same dictionary.
+ *
+ * @author Denys Storozhenko
+ */
+final class Words {
+    private static final int RANDOM_WORDS = 300000;
+    private static final String LETTERS = "eeeeaaaiiioonnrrsstldcumphgbfywkvxzjq";
+
+    private Words() {
+    }
+
+    /**
+     * Returns sorted words longer than two letters, without duplicates.
+     *
+     * @param file file of words, or an empty string for random words.
+     * @return the words.
+     * @throws IOException if the file can not be read.
+     */
+    static List<String> load(String file) throws IOException {
+        TreeSet<String> words = new TreeSet<>();
+        if (file.isEmpty()) {
+            Random random = new Random(42);
+            StringBuilder word = new StringBuilder();
+            while (words.size() < RANDOM_WORDS) {
+                word.setLength(0);
+                int length = 3 + random.nextInt(4) + random.nextInt(6);
+                for (int i = 0; i < length; i++) {
+                    word.append(LETTERS.charAt(
+                            random.nextInt(LETTERS.length())));
+                }
+                words.add(word.toString());
+            }
+        } else {
+            new MappedFileLoader(Paths.get(file)).parse(word -> {
+                if (word.length() > 2) {
+                    words.add(word);
+                }
+            });
+        }
+        return new ArrayList<>(words);
+    }
+}
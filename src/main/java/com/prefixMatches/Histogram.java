@@ -0,0 +1,165 @@
+package com.prefixmatches;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of not negative values, for example latencies in nanoseconds,
+ * with log-linear buckets as in HdrHistogram: every power of two is split
+ * into 8 buckets, so a value is known within 12.5%, and the histogram has a
+ * fixed size whatever the values are. Buckets are LongAdders, so threads
+ * recording at once do not contend.
+ *
+ * @author Denys Storozhenko
+ */
+public class Histogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Immutable copy of a histogram.
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long sum, long max) {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.counts = counts;
+            this.count = total;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns the value, which percentile percents of recorded values
+         * do not exceed, rounded up to the bound of its bucket.
+         *
+         * @param percentile from 0 to 100.
+         * @return the value at the percentile, 0 if nothing is recorded.
+         */
+        public long valueAt(double percentile) {
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(highest(i), max);
+                }
+            }
+            return 0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getP50() {
+            return valueAt(50);
+        }
+
+        public long getP90() {
+            return valueAt(90);
+        }
+
+        public long getP99() {
+            return valueAt(99);
+        }
+
+        public long getP999() {
+            return valueAt(99.9);
+        }
+    }
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value; negative values are recorded as 0.
+     *
+     * @param value value to record.
+     */
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    /**
+     * Records a value count times, for example a sample of one of count
+     * values; negative values are recorded as 0.
+     *
+     * @param value value to record.
+     * @param count times to record it.
+     */
+    public void record(long value, long count) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets[bucket(value)].add(count);
+        sum.add(value * count);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns a copy of the histogram. Values recorded meanwhile may be
+     * partly in it.
+     *
+     * @return the snapshot.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts, sum.sum(), max.get());
+    }
+
+    /**
+     * Returns the bucket of value: values below 8 have a bucket each, the
+     * others are split by the power of two and the next 3 bits.
+     */
+    static int bucket(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int power = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (power - SUB_BITS)) - SUB_COUNT;
+        return (power - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * Returns the highest value of the bucket.
+     */
+    static long highest(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int power = bucket / SUB_COUNT + SUB_BITS - 1;
+        long sub = bucket % SUB_COUNT + SUB_COUNT;
+        long lowest = sub << (power - SUB_BITS);
+        return lowest + (1L << (power - SUB_BITS)) - 1;
+    }
+}
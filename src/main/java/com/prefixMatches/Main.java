@@ -1,12 +1,12 @@
 package com.prefixmatches;
 
 import com.prefixmatches.trie.RWayTrie;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 public class Main {
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         PrefixMatches prefixMatches = new PrefixMatches(new RWayTrie());
-        prefixMatches.add(new Parser("words-333333.txt").parse());
+        prefixMatches.load(new Parser("words-333333.txt"));
         for (String str : prefixMatches.wordsWithPrefix("mock", 18)) {
             System.out.println(str);
         }
@@ -0,0 +1,137 @@
+package com.prefixmatches;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Class allows load words from a file of any size on the file system. The
+ * file is memory-mapped in chunks, which end at whitespace, and the chunks
+ * are tokenized in parallel straight from bytes; only accepted words become
+ * strings. Words are the same as in Parser: whitespace separated tokens,
+ * which consist of latin letters only.
+ *
+ * @author Denys Storozhenko
+ * @see Parser
+ */
+public class MappedFileLoader implements WordSource {
+    private static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+    private Path path;
+    private int chunkSize;
+
+    public MappedFileLoader(Path path) {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    public MappedFileLoader(Path path, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.path = path;
+        this.chunkSize = chunkSize;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Passes all words of the file to consumer in the file order. Chunks
+     * are tokenized on the common ForkJoinPool, a few chunks ahead of the
+     * consumer, which is always called from the calling thread.
+     *
+     * @param consumer receives every word.
+     * @return count of passed words.
+     * @throws IOException if the file can not be read.
+     */
+    public int parse(Consumer<String> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            int ahead = ForkJoinPool.getCommonPoolParallelism() * 2;
+            Queue<ForkJoinTask<List<String>>> tasks = new LinkedList<>();
+            int count = 0;
+            long start = 0;
+            long size = channel.size();
+            while (start < size || !tasks.isEmpty()) {
+                while (start < size && tasks.size() < ahead) {
+                    long end = boundary(channel, start + chunkSize);
+                    MappedByteBuffer chunk = channel.map(
+                            FileChannel.MapMode.READ_ONLY, start, end - start);
+                    tasks.add(ForkJoinPool.commonPool().submit(
+                            () -> tokenize(chunk)));
+                    start = end;
+                }
+                for (String word : tasks.remove().join()) {
+                    consumer.accept(word);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Returns the first position of whitespace at or after from, or the
+     * size of the file.
+     */
+    private static long boundary(FileChannel channel, long from)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        long position = from;
+        while (position < channel.size()) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (isWhitespace(buffer.get(i))) {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return channel.size();
+    }
+
+    static List<String> tokenize(ByteBuffer chunk) {
+        List<String> words = new ArrayList<>();
+        byte[] token = new byte[64];
+        int length = 0;
+        boolean letters = true;
+        while (chunk.hasRemaining()) {
+            byte b = chunk.get();
+            if (isWhitespace(b)) {
+                if (length > 0 && letters) {
+                    words.add(new String(token, 0, length,
+                            StandardCharsets.US_ASCII));
+                }
+                length = 0;
+                letters = true;
+                continue;
+            }
+            if (length == token.length) {
+                token = Arrays.copyOf(token, length * 2);
+            }
+            token[length++] = b;
+            letters &= b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z';
+        }
+        if (length > 0 && letters) {
+            words.add(new String(token, 0, length, StandardCharsets.US_ASCII));
+        }
+        return words;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b >= '\t' && b <= '\r' || b >= 0x1C && b <= 0x1F;
+    }
+}
@@ -0,0 +1,244 @@
+package com.prefixmatches;
+
+import com.prefixmatches.trie.Trie;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of a PrefixMatches: latency histograms of add, contains, delete
+ * and wordsWithPrefix calls, and for tries, which count them (see
+ * Trie.wordsWithPrefix(pref, maxDepth, visits)), the nodes visited per
+ * query and the nodes, which were visited, but gave no word.
+ *
+ * <p>A query is timed from the call of wordsWithPrefix() until its words
+ * are exhausted, so the time of the caller's loop is included; queries
+ * abandoned earlier are not recorded. Calls of add, contains and delete are
+ * too short for that: reading the clock around every lookup stops the CPU
+ * from overlapping the cache misses of consecutive lookups and more than
+ * doubles their time. Therefore only a random sample of them is timed and
+ * every sample is recorded as many calls, so that counts and percentiles
+ * are estimates.
+ *
+ * @author Denys Storozhenko
+ * @see PrefixMatches
+ */
+public class Metrics implements MetricsMXBean {
+    private final Histogram add = new Histogram();
+    private final Histogram contains = new Histogram();
+    private final Histogram delete = new Histogram();
+    private final Histogram wordsWithPrefix = new Histogram();
+    private final Histogram nodesVisited = new Histogram();
+    private final LongAdder wordsReturned = new LongAdder();
+    private final LongAdder nodesDiscarded = new LongAdder();
+    private final int period;
+
+    /**
+     * Immutable copy of the metrics.
+     */
+    public static class Snapshot implements MetricsMXBean {
+        private final Histogram.Snapshot add;
+        private final Histogram.Snapshot contains;
+        private final Histogram.Snapshot delete;
+        private final Histogram.Snapshot wordsWithPrefix;
+        private final Histogram.Snapshot nodesVisited;
+        private final long wordsReturned;
+        private final long nodesDiscarded;
+
+        private Snapshot(Metrics metrics) {
+            add = metrics.add.snapshot();
+            contains = metrics.contains.snapshot();
+            delete = metrics.delete.snapshot();
+            wordsWithPrefix = metrics.wordsWithPrefix.snapshot();
+            nodesVisited = metrics.nodesVisited.snapshot();
+            wordsReturned = metrics.wordsReturned.sum();
+            nodesDiscarded = metrics.nodesDiscarded.sum();
+        }
+
+        public Histogram.Snapshot getAdd() {
+            return add;
+        }
+
+        public Histogram.Snapshot getContains() {
+            return contains;
+        }
+
+        public Histogram.Snapshot getDelete() {
+            return delete;
+        }
+
+        public Histogram.Snapshot getWordsWithPrefix() {
+            return wordsWithPrefix;
+        }
+
+        public Histogram.Snapshot getNodesVisited() {
+            return nodesVisited;
+        }
+
+        public long getWordsReturned() {
+            return wordsReturned;
+        }
+
+        public long getNodesDiscarded() {
+            return nodesDiscarded;
+        }
+    }
+
+    private class MeasuredIterator implements Iterator<String>, IntConsumer {
+        private final long start = System.nanoTime();
+        private final Iterator<String> words;
+        private int returned;
+        private int visited = -1;
+        private boolean done;
+
+        public MeasuredIterator(Trie trie, String pref, int maxDepth) {
+            words = trie.wordsWithPrefix(pref, maxDepth, this).iterator();
+        }
+
+        @Override
+        public void accept(int visited) {
+            this.visited = visited;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (words.hasNext()) {
+                return true;
+            }
+            if (!done) {
+                done = true;
+                wordsWithPrefix.record(System.nanoTime() - start);
+                wordsReturned.add(returned);
+                if (visited >= 0) {
+                    nodesVisited.record(visited);
+                    nodesDiscarded.add(Math.max(visited - returned, 0));
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String next() {
+            String word = words.next();
+            returned++;
+            return word;
+        }
+    }
+
+    /**
+     * Constructs metrics, which time one of 16 calls of add, contains and
+     * delete, and every query.
+     */
+    public Metrics() {
+        this(16);
+    }
+
+    /**
+     * Constructs metrics, which time about one of period calls of add,
+     * contains and delete, and every query.
+     *
+     * @param period 1 to time every call, more to time fewer calls.
+     * @throws IllegalArgumentException if period is not positive.
+     */
+    public Metrics(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        this.period = period;
+    }
+
+    /**
+     * Returns whether the next call of add, contains or delete is timed.
+     */
+    boolean sample() {
+        return period == 1 || ThreadLocalRandom.current().nextInt(period) == 0;
+    }
+
+    void recordAdd(long start) {
+        add.record(System.nanoTime() - start, period);
+    }
+
+    void recordContains(long start) {
+        contains.record(System.nanoTime() - start, period);
+    }
+
+    void recordDelete(long start) {
+        delete.record(System.nanoTime() - start, period);
+    }
+
+    /**
+     * Records a query answered without the trie, for example from a cache.
+     */
+    void recordWordsWithPrefix(long start, int returned) {
+        wordsWithPrefix.record(System.nanoTime() - start);
+        wordsReturned.add(returned);
+    }
+
+    /**
+     * Returns trie.wordsWithPrefix(pref, maxDepth), whose iteration is
+     * recorded.
+     */
+    Iterable<String> wordsWithPrefix(Trie trie, String pref, int maxDepth) {
+        return () -> new MeasuredIterator(trie, pref, maxDepth);
+    }
+
+    /**
+     * Returns a copy of all metrics. Calls made meanwhile may be partly in
+     * it.
+     *
+     * @return the snapshot.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server as
+     * com.prefixmatches:type=Metrics,name=name.
+     *
+     * @param name name of the dictionary.
+     * @return the name of the registered MBean.
+     * @throws JMException if the MBean can not be registered, for example
+     *                     if the name is taken.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName(
+                "com.prefixmatches:type=Metrics,name="
+                        + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                objectName);
+        return objectName;
+    }
+
+    public Histogram.Snapshot getAdd() {
+        return add.snapshot();
+    }
+
+    public Histogram.Snapshot getContains() {
+        return contains.snapshot();
+    }
+
+    public Histogram.Snapshot getDelete() {
+        return delete.snapshot();
+    }
+
+    public Histogram.Snapshot getWordsWithPrefix() {
+        return wordsWithPrefix.snapshot();
+    }
+
+    public Histogram.Snapshot getNodesVisited() {
+        return nodesVisited.snapshot();
+    }
+
+    public long getWordsReturned() {
+        return wordsReturned.sum();
+    }
+
+    public long getNodesDiscarded() {
+        return nodesDiscarded.sum();
+    }
+}
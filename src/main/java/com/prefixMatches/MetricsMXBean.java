@@ -0,0 +1,25 @@
+package com.prefixmatches;
+
+/**
+ * Management interface of Metrics: latencies of PrefixMatches calls in
+ * nanoseconds, nodes visited by queries and words they returned.
+ *
+ * @author Denys Storozhenko
+ * @see Metrics
+ */
+public interface MetricsMXBean {
+
+    Histogram.Snapshot getAdd();
+
+    Histogram.Snapshot getContains();
+
+    Histogram.Snapshot getDelete();
+
+    Histogram.Snapshot getWordsWithPrefix();
+
+    Histogram.Snapshot getNodesVisited();
+
+    long getWordsReturned();
+
+    long getNodesDiscarded();
+}
@@ -1,21 +1,45 @@
 package com.prefixmatches;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 /**
  * Class allows parse input file.
  *
  * @author Denys Storozhenko
  */
-public class Parser {
+public class Parser implements WordSource {
+    private static final int BUFFER_SIZE = 1 << 16;
     private String filename;
+    private boolean anyLetters;
 
     public Parser(String filename) {
         this.filename = filename;
     }
 
+    /**
+     * Constructs a parser of the file, whose words may consist of letters
+     * of any alphabet, for example cyrillic or accented ones, for tries
+     * like SparseTrie, which are not limited to latin letters.
+     *
+     * @param filename   name of the file among resources.
+     * @param anyLetters true to accept words of any letters, false to
+     *                   accept words of latin letters only.
+     */
+    public Parser(String filename, boolean anyLetters) {
+        this.filename = filename;
+        this.anyLetters = anyLetters;
+    }
+
     public String getFilename() {
         return filename;
     }
@@ -42,4 +66,81 @@ public class Parser {
         }
         return String.valueOf(stringBuilder);
     }
+
+    /**
+     * Streams the words of the file to consumer one by one, without keeping
+     * the file in memory. Words are the same as in parse(): whitespace
+     * separated tokens, which consist of latin letters only, or of any
+     * letters, if the parser was constructed so.
+     *
+     * @param consumer receives every word.
+     * @return count of passed words.
+     * @throws IOException if the file can not be found or read.
+     */
+    public int parse(Consumer<String> consumer) throws IOException {
+        InputStream stream = getClass().getClassLoader().
+                getResourceAsStream(filename);
+        if (stream == null) {
+            throw new FileNotFoundException(filename);
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(stream,
+                StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return parse(reader, consumer, anyLetters);
+        }
+    }
+
+    static int parse(Reader reader, Consumer<String> consumer)
+            throws IOException {
+        return parse(reader, consumer, false);
+    }
+
+    static int parse(Reader reader, Consumer<String> consumer,
+                     boolean anyLetters) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        char[] token = new char[64];
+        int length = 0;
+        boolean letters = true;
+        int count = 0;
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (Character.isWhitespace(c)) {
+                    if (length > 0 && letters
+                            && (!anyLetters || isWord(token, length))) {
+                        consumer.accept(new String(token, 0, length));
+                        count++;
+                    }
+                    length = 0;
+                    letters = true;
+                    continue;
+                }
+                if (length == token.length) {
+                    token = Arrays.copyOf(token, length * 2);
+                }
+                token[length++] = c;
+                letters &= anyLetters
+                        || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+            }
+        }
+        if (length > 0 && letters && (!anyLetters || isWord(token, length))) {
+            consumer.accept(new String(token, 0, length));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Determines whether all code points of the token are letters.
+     */
+    private static boolean isWord(char[] token, int length) {
+        for (int i = 0; i < length; ) {
+            int codePoint = Character.codePointAt(token, i, length);
+            if (!Character.isLetter(codePoint)) {
+                return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return true;
+    }
 }
@@ -0,0 +1,182 @@
+package com.prefixmatches;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded LRU cache of results of PrefixMatches.wordsWithPrefix(pref, k).
+ * A change of a word drops only the results it can be in: those whose
+ * prefix starts the word and whose k lets it in. All methods are
+ * thread-safe; a result computed while the dictionary changed is not
+ * stored.
+ *
+ * @author Denys Storozhenko
+ * @see PrefixMatches
+ */
+public class PrefixCache {
+    private final int capacity;
+    private final Map<Key, List<String>> results;
+    private final Map<String, Set<Integer>> ks = new HashMap<>();
+    private long generation;
+    private long hits;
+    private long misses;
+
+    private static final class Key {
+        private final String prefix;
+        private final int k;
+
+        public Key(String prefix, int k) {
+            this.prefix = prefix;
+            this.k = k;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return k == key.k && prefix.equals(key.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return prefix.hashCode() * 31 + k;
+        }
+    }
+
+    /**
+     * Constructs a cache of at most capacity results.
+     *
+     * @param capacity max count of cached results.
+     * @throws IllegalArgumentException if capacity is not positive.
+     */
+    public PrefixCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        results = new LinkedHashMap<Key, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<Key, List<String>> eldest) {
+                if (size() <= PrefixCache.this.capacity) {
+                    return false;
+                }
+                unindex(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result or null, and counts a hit or a miss.
+     */
+    synchronized List<String> get(String pref, int k) {
+        List<String> words = results.get(new Key(pref, k));
+        if (words == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return words;
+    }
+
+    /**
+     * Returns the generation to pass to put() with a result computed after
+     * this call.
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores the result, unless the dictionary has changed since the
+     * generation was taken.
+     */
+    synchronized void put(String pref, int k, List<String> words,
+                          long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        Key key = new Key(pref, k);
+        if (results.put(key, words) == null) {
+            ks.computeIfAbsent(pref, p -> new HashSet<>()).add(k);
+        }
+    }
+
+    /**
+     * Drops results, which the word may be added to or removed from.
+     */
+    synchronized void invalidate(String word) {
+        generation++;
+        for (int i = 2; i <= word.length(); i++) {
+            String pref = word.substring(0, i);
+            Set<Integer> cached = ks.get(pref);
+            if (cached == null) {
+                continue;
+            }
+            for (Integer k : cached.toArray(new Integer[0])) {
+                if (word.length() <= i + k - 1) {
+                    results.remove(new Key(pref, k));
+                    cached.remove(k);
+                }
+            }
+            if (cached.isEmpty()) {
+                ks.remove(pref);
+            }
+        }
+    }
+
+    /**
+     * Drops all results.
+     */
+    public synchronized void clear() {
+        generation++;
+        results.clear();
+        ks.clear();
+    }
+
+    private void unindex(Key key) {
+        Set<Integer> cached = ks.get(key.prefix);
+        cached.remove(key.k);
+        if (cached.isEmpty()) {
+            ks.remove(key.prefix);
+        }
+    }
+
+    /**
+     * Returns the number of requests answered from the cache.
+     *
+     * @return the number of hits.
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests, which had to query the trie.
+     *
+     * @return the number of misses.
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return the number of cached results.
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -1,8 +1,16 @@
 package com.prefixmatches;
 
+import com.prefixmatches.trie.CopyOnWriteTrie;
+import com.prefixmatches.trie.RWayTrie;
 import com.prefixmatches.trie.Trie;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Class allows to create in-memory dictionary of words.
@@ -11,15 +19,52 @@ import java.util.NoSuchElementException;
  */
 public class PrefixMatches {
     public final static int DEF_K = 3;
+    private final static int LOAD_BATCH = 1 << 16;
     private Trie trie;
+    private CopyOnWriteTrie snapshots;
+    private boolean bulkLoads;
+    private PrefixCache cache;
+    private Metrics metrics;
 
     /**
-     * Constructs prefix matcher with trie.
+     * Constructs prefix matcher with trie. With a CopyOnWriteTrie readers
+     * query immutable snapshots of the dictionary, and words of one add()
+     * call are published together as one version.
      *
      * @param trie - struct for dictionary
      */
     public PrefixMatches(Trie trie) {
+        this(trie, null);
+    }
+
+    /**
+     * Constructs prefix matcher with trie, whose wordsWithPrefix() results
+     * are kept in cache. Changes made through this prefix matcher drop the
+     * results they affect; the trie must not be changed past it.
+     *
+     * @param trie  - struct for dictionary
+     * @param cache - cache of results, or null
+     */
+    public PrefixMatches(Trie trie, PrefixCache cache) {
+        this(trie, cache, null);
+    }
+
+    /**
+     * Constructs prefix matcher with trie and cache, which records its
+     * calls in metrics.
+     *
+     * @param trie    - struct for dictionary
+     * @param cache   - cache of results, or null
+     * @param metrics - metrics of calls, or null
+     */
+    public PrefixMatches(Trie trie, PrefixCache cache, Metrics metrics) {
         this.trie = trie;
+        this.cache = cache;
+        this.metrics = metrics;
+        if (trie instanceof CopyOnWriteTrie) {
+            snapshots = (CopyOnWriteTrie) trie;
+        }
+        bulkLoads = trie instanceof RWayTrie; //the only addAll of its own
     }
 
     /**
@@ -29,6 +74,70 @@ public class PrefixMatches {
      * @return count of added words
      */
     public int add(String... strings) {
+        if (metrics == null || !metrics.sample()) {
+            return addWords(strings);
+        }
+        long start = System.nanoTime();
+        try {
+            return addWords(strings);
+        } finally {
+            metrics.recordAdd(start);
+        }
+    }
+
+    private int addWords(String... strings) {
+        if (cache == null) {
+            if (snapshots != null) {
+                int[] count = new int[1];
+                snapshots.update(batch -> count[0] = add(batch::add, strings));
+                return count[0];
+            }
+            return add(trie::add, strings);
+        }
+        List<Trie.Tuple> tuples = new ArrayList<>();
+        int count = add(tuples::add, strings);
+        if (snapshots != null) {
+            snapshots.update(batch -> tuples.forEach(batch::add));
+        } else {
+            tuples.forEach(trie::add);
+        }
+        for (Trie.Tuple tuple : tuples) {
+            cache.invalidate(tuple.getTerm());
+        }
+        return count;
+    }
+
+    /**
+     * Adds word to dictionary with its score, for example frequency or
+     * popularity, which ranks it in topK(). Words added without a score get
+     * their length as score.
+     *
+     * @param word   word to add.
+     * @param weight score of the word, not negative.
+     * @return true if the word has been added, false - if it is too short.
+     */
+    public boolean add(String word, int weight) {
+        if (word.length() <= 2) {
+            return false;
+        }
+        boolean timed = metrics != null && metrics.sample();
+        long start = timed ? System.nanoTime() : 0;
+        Trie.Tuple tuple = new Trie.Tuple(word, weight);
+        if (snapshots != null) {
+            snapshots.update(batch -> batch.add(tuple));
+        } else {
+            trie.add(tuple);
+        }
+        if (cache != null) {
+            cache.invalidate(word);
+        }
+        if (timed) {
+            metrics.recordAdd(start);
+        }
+        return true;
+    }
+
+    private int add(Consumer<Trie.Tuple> sink, String... strings) {
         int count = 0;
         if (strings.length > 0) {
             for (String string : strings) {
@@ -36,13 +145,13 @@ public class PrefixMatches {
                     String[] elements = string.split("[ ]+");
                     for (String s : elements) {
                         if (s.length() > 2) {
-                            trie.add(new Trie.Tuple(s, s.length()));
+                            sink.accept(new Trie.Tuple(s, s.length()));
                             count++;
                         }
                     }
                 } else {
                     if (string.length() > 2) {
-                        trie.add(new Trie.Tuple(string, string.length()));
+                        sink.accept(new Trie.Tuple(string, string.length()));
                         count++;
                     }
                 }
@@ -51,6 +160,79 @@ public class PrefixMatches {
         return count;
     }
 
+    /**
+     * Adds words of the source, for example of a parsed file, to
+     * dictionary. A rWayTrie gets the words in batches of 64k, so it can
+     * load each batch in bulk, like in load(String...), while only one
+     * batch is kept in memory; other tries get them one by one, straight
+     * from the source, and a CopyOnWriteTrie in one new version.
+     *
+     * @param parser source of words.
+     * @return count of added words
+     * @throws IOException if the source can not be read.
+     */
+    public int load(WordSource parser) throws IOException {
+        try {
+            if (snapshots != null) {
+                int[] count = new int[1];
+                snapshots.update(batch -> count[0] = add(batch::add, parser));
+                return count[0];
+            }
+            if (!bulkLoads) {
+                return add(trie::add, parser);
+            }
+            List<Trie.Tuple> batch = new ArrayList<>(LOAD_BATCH);
+            int count = add(tuple -> {
+                batch.add(tuple);
+                if (batch.size() == LOAD_BATCH) {
+                    trie.addAll(batch);
+                    batch.clear();
+                }
+            }, parser);
+            trie.addAll(batch);
+            return count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private int add(Consumer<Trie.Tuple> sink, WordSource parser) {
+        int[] count = new int[1];
+        try {
+            parser.parse(word -> {
+                if (word.length() > 2) {
+                    sink.accept(new Trie.Tuple(word, word.length()));
+                    count[0]++;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+
+    /**
+     * Adds word(s) to dictionary at once, which lets the trie load them in
+     * bulk, for example in parallel. The dictionary is the same as after
+     * add() with the same words.
+     *
+     * @param strings word or string or array of words/strings
+     * @return count of added words
+     */
+    public int load(String... strings) {
+        List<Trie.Tuple> tuples = new ArrayList<>();
+        int count = add(tuples::add, strings);
+        trie.addAll(tuples);
+        if (cache != null) {
+            cache.clear();
+        }
+        return count;
+    }
+
     /**
      * Determines whether there is a word in the dictionary.
      *
@@ -58,7 +240,13 @@ public class PrefixMatches {
      * @return true if a word is in the dictionary, false - else.
      */
     public boolean contains(String word) {
-        return trie.contains(word);
+        if (metrics == null || !metrics.sample()) {
+            return trie.contains(word);
+        }
+        long start = System.nanoTime();
+        boolean contains = trie.contains(word);
+        metrics.recordContains(start);
+        return contains;
     }
 
     /**
@@ -68,7 +256,16 @@ public class PrefixMatches {
      * @return true if a word has been removed from dictionary, false - else.
      */
     public boolean delete(String word) {
-        return trie.delete(word);
+        boolean timed = metrics != null && metrics.sample();
+        long start = timed ? System.nanoTime() : 0;
+        boolean deleted = trie.delete(word);
+        if (deleted && cache != null) {
+            cache.invalidate(word);
+        }
+        if (timed) {
+            metrics.recordDelete(start);
+        }
+        return deleted;
     }
 
     /**
@@ -80,60 +277,49 @@ public class PrefixMatches {
         return trie.size();
     }
 
-    private class PrefixMatchesIterator<T> implements Iterator<T> {
-        private Iterator<String> trieIterator;
-        private String prefix;
-        private int k;
-        private String currentString = "";
-        private boolean flag = false;
-
-        public PrefixMatchesIterator(String pref, int k) {
-            this.k = k;
-            this.prefix = pref;
-            trieIterator = trie.wordsWithPrefix(pref).iterator();
-        }
-
-        @Override
-        public boolean hasNext() {
-            if (flag) {
-                return true;
-            }
-            if (trieIterator.hasNext()) {
-                do {
-                    String tmp = trieIterator.next();
-                    if (tmp.length() < prefix.length() + k) {
-                        currentString = tmp;
-                        flag = true;
-                        return true;
-                    }
-                }
-                while (trieIterator.hasNext());
-            }
-            return false;
-        }
-
-        @Override
-        public T next() {
-            if (!this.hasNext()) {
-                throw new NoSuchElementException();
-            }
-            flag = false;
-            return (T) currentString;
+    /**
+     * Returns the version of the dictionary, which grows with every
+     * published change, so that cached results can be invalidated.
+     *
+     * @return the version of the dictionary.
+     * @throws UnsupportedOperationException if the dictionary is not built
+     *                                       on a CopyOnWriteTrie.
+     */
+    public long version() {
+        if (snapshots == null) {
+            throw new UnsupportedOperationException(
+                    "Dictionary is not versioned");
         }
+        return snapshots.version();
     }
 
-
     /**
      * Returns iterator for all words in dictionary, which starts with prefix
-     * and has length from prefix length to prefix length+k
+     * and has length from prefix length to prefix length+k. With a cache
+     * the words are an unmodifiable list, which is kept in the cache.
      *
      * @param pref prefix of each returned word
      * @param k    max length of word
      * @return iterator for all words, which starts with prefix
      */
     public Iterable<String> wordsWithPrefix(String pref, int k) {
-        if (pref.length() >= 2) {
-            return () -> new PrefixMatchesIterator<>(pref, k);
+        if (pref.length() >= 2 && cache != null) {
+            long start = metrics == null ? 0 : System.nanoTime();
+            List<String> words = cache.get(pref, k);
+            if (words == null) {
+                long generation = cache.generation();
+                words = new ArrayList<>();
+                for (String word : query(pref, pref.length() + k - 1)) {
+                    words.add(word);
+                }
+                words = Collections.unmodifiableList(words);
+                cache.put(pref, k, words, generation);
+            } else if (metrics != null) {
+                metrics.recordWordsWithPrefix(start, words.size());
+            }
+            return words;
+        } else if (pref.length() >= 2) {
+            return query(pref, pref.length() + k - 1);
         } else {
             return () -> new Iterator<String>() {
                 @Override
@@ -149,6 +335,96 @@ public class PrefixMatches {
         }
     }
 
+    private Iterable<String> query(String pref, int maxDepth) {
+        return metrics == null ? trie.wordsWithPrefix(pref, maxDepth)
+                : metrics.wordsWithPrefix(trie, pref, maxDepth);
+    }
+
+    /**
+     * Answers wordsWithPrefix(prefs[i], ks[i]) for every i at once. Tries
+     * like RWayTrie share the walk between queries, so a burst of queries
+     * with common stems is cheaper than the same queries one by one.
+     *
+     * @param prefs prefix of each query
+     * @param ks    max length of word over prefix length of each query
+     * @return words of each query, in the order of queries
+     * @throws IllegalArgumentException if the arrays differ in length.
+     */
+    public List<List<String>> wordsWithPrefixes(String[] prefs, int[] ks) {
+        if (prefs.length != ks.length) {
+            throw new IllegalArgumentException("Each prefix must have a k");
+        }
+        int[] maxDepths = new int[prefs.length];
+        for (int i = 0; i < prefs.length; i++) {
+            maxDepths[i] = prefs[i].length() >= 2
+                    ? prefs[i].length() + ks[i] - 1 : -1;
+        }
+        return trie.wordsWithPrefixes(prefs, maxDepths);
+    }
+
+    /**
+     * Returns a stream of all words in dictionary, which start with prefix,
+     * of any length; an empty prefix streams the whole dictionary. The
+     * stream may be made parallel() for jobs over the whole dictionary.
+     * The dictionary must not change while the stream is consumed.
+     *
+     * @param pref prefix of each word of the stream
+     * @return stream of words, which start with prefix
+     */
+    public Stream<String> wordStream(String pref) {
+        return trie.wordStream(pref);
+    }
+
+    /**
+     * Returns the number of words in dictionary, which start with prefix.
+     *
+     * @param pref prefix of counted words
+     * @return the number of words with the prefix
+     */
+    public int countWithPrefix(String pref) {
+        return trie.countWithPrefix(pref);
+    }
+
+    /**
+     * Returns a page of words in dictionary, which start with prefix, in
+     * alphabetical order.
+     *
+     * @param pref   prefix of each returned word
+     * @param offset number of words to skip
+     * @param limit  max count of returned words
+     * @return words from offset, at most limit
+     */
+    public List<String> wordsWithPrefix(String pref, int offset, int limit) {
+        return trie.wordsWithPrefix(pref, offset, limit);
+    }
+
+    /**
+     * Returns at most k words in dictionary, which start with a string
+     * within maxEdits typos from prefix, the closest first.
+     *
+     * @param pref     prefix, possibly mistyped
+     * @param maxEdits max count of inserted, deleted or replaced letters
+     * @param k        max count of returned words
+     * @return words sorted by count of typos
+     */
+    public List<String> fuzzyWordsWithPrefix(String pref, int maxEdits,
+                                             int k) {
+        return trie.fuzzyWordsWithPrefix(pref, maxEdits, k);
+    }
+
+    /**
+     * Returns at most k words in dictionary, which start with prefix, with
+     * the highest scores.
+     *
+     * @param pref prefix of each returned word
+     * @param k    max count of returned words
+     * @return words sorted by score, from the highest
+     * @throws UnsupportedOperationException if the trie keeps no weights.
+     */
+    public List<String> topK(String pref, int k) {
+        return trie.topK(pref, k);
+    }
+
     /**
      * Returns iterator for all words in dictionary, which starts with prefix
      * and has length from prefix length to prefix length+3
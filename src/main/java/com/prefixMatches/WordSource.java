@@ -0,0 +1,23 @@
+package com.prefixmatches;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Source of words for the dictionary.
+ *
+ * @author Denys Storozhenko
+ * @see Parser
+ */
+public interface WordSource {
+
+    /**
+     * Passes all words of the source to consumer in their order, from the
+     * calling thread.
+     *
+     * @param consumer receives every word.
+     * @return count of passed words.
+     * @throws IOException if the source can not be read.
+     */
+    int parse(Consumer<String> consumer) throws IOException;
+}
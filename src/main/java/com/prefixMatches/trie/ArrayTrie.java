@@ -0,0 +1,158 @@
+package com.prefixmatches.trie;
+
+import java.util.Arrays;
+
+/**
+ *  Implementation of the (@code Trie), which keeps its nodes in parallel
+ *  primitive arrays instead of objects. A node is an index into the arrays:
+ *  its letter, its weight, its first child and its next sibling, with
+ *  siblings linked in the order of letters. A node, which has got 3
+ *  children, also gets a block of 26 ints in a table of children, which
+ *  finds its child with a letter a..z in one step; most nodes have one or
+ *  two children and find them in the sibling list without a block. The
+ *  arrays grow by doubling and nodes and blocks freed by delete() are
+ *  reused, so the whole trie is a few objects, which the garbage collector
+ *  does not have to trace node by node. A node takes 18 bytes and a block
+ *  104 more.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class ArrayTrie extends LinkedTrie {
+    private char[] labels;
+    private int[] weights;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] block; //offset of the children of a node in the table
+    private int[] table = new int[BLOCK * 16]; //first block is never used
+    private int blocks = 1;
+    private int freeBlock; //blocks are linked through their first int
+
+    private static final int BLOCK = 26;
+    private static final int TABLE_CHILDREN = 3;
+
+    /**
+     * Constructs an empty arrayTrie.
+     */
+    public ArrayTrie() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty arrayTrie with room for capacity nodes, for
+     * example about the total length of the words to add.
+     *
+     * @param capacity number of nodes to allocate at once.
+     */
+    public ArrayTrie(int capacity) {
+        capacity = Math.max(capacity, 1);
+        labels = new char[capacity];
+        weights = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        block = new int[capacity];
+        weights[ROOT] = -1;
+    }
+
+    char label(int node) {
+        return labels[node];
+    }
+
+    int weight(int node) {
+        return weights[node];
+    }
+
+    int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    int nextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    void setLabel(int node, char label) {
+        labels[node] = label;
+    }
+
+    void setWeight(int node, int weight) {
+        weights[node] = weight;
+    }
+
+    void setFirstChild(int node, int child) {
+        firstChild[node] = child;
+    }
+
+    void setNextSibling(int node, int sibling) {
+        nextSibling[node] = sibling;
+    }
+
+    void grow(int node) {
+        if (node == labels.length) {
+            int capacity = labels.length * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            block = Arrays.copyOf(block, capacity);
+        }
+    }
+
+    int child(int node, char c) {
+        if (block[node] == 0 || c < 'a' || c > 'z') {
+            return super.child(node, c);
+        }
+        return table[block[node] + c - 'a'];
+    }
+
+    void linked(int parent, int child) {
+        if (block[parent] != 0) {
+            setSlot(parent, child, child);
+            return;
+        }
+        int children = 0;
+        for (int sibling = firstChild(parent); sibling != NONE;
+             sibling = nextSibling(sibling)) {
+            if (++children == TABLE_CHILDREN) {
+                block[parent] = allocateBlock();
+                for (int c = firstChild(parent); c != NONE; c = nextSibling(c)) {
+                    setSlot(parent, c, c);
+                }
+                return;
+            }
+        }
+    }
+
+    void unlinked(int parent, int child) {
+        if (block[parent] == 0) {
+            return;
+        }
+        setSlot(parent, child, NONE);
+        if (firstChild(parent) == NONE) { //all slots are NONE again
+            table[block[parent]] = freeBlock;
+            freeBlock = block[parent];
+            block[parent] = 0;
+        }
+    }
+
+    private void setSlot(int parent, int child, int value) {
+        char c = label(child);
+        if (c >= 'a' && c <= 'z') {
+            table[block[parent] + c - 'a'] = value;
+        }
+    }
+
+    private int allocateBlock() {
+        int offset;
+        if (freeBlock != 0) {
+            offset = freeBlock;
+            freeBlock = table[offset];
+            table[offset] = NONE;
+        } else {
+            offset = blocks++ * BLOCK;
+            if (offset == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,225 @@
+package com.prefixmatches.trie;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ *  Thread-safe implementation of the (@code Trie). Reads never lock: child
+ *  slots are published with compare-and-set and a word is marked or unmarked
+ *  by a compare-and-set of its node weight, which also keeps size() exact.
+ *
+ *  <p>Deleted words only lose their mark, their nodes stay in the trie, so
+ *  that a concurrent add can never attach a word to an unlinked branch.
+ *  Iterators are weakly consistent: they never fail, and they reflect some
+ *  of the modifications made after their creation.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class ConcurrentTrie implements Trie {
+    private final static int R = 26;
+    private static final AtomicIntegerFieldUpdater<Node> WEIGHT =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "weight");
+    private final Node root;
+    private final AtomicInteger size;
+
+    private static class Node {
+        private final char value;
+        volatile int weight; //not private, WEIGHT must be able to reach it
+        private final AtomicReferenceArray<Node> next;
+
+        public Node(char value) {
+            this.value = value;
+            weight = -1;
+            next = new AtomicReferenceArray<>(R);
+        }
+    }
+
+    /**
+     * Constructs an empty concurrentTrie.
+     */
+    public ConcurrentTrie() {
+        root = new Node(' ');
+        size = new AtomicInteger();
+    }
+
+    /**
+     * Adds to concurrentTrie a tuple.
+     *
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
+     */
+    public void add(Tuple tuple) {
+        Node temp = root;
+        for (int i = 0; i < tuple.getTerm().length(); i++) {
+            char c = tuple.getTerm().charAt(i);
+            Node child = temp.next.get(c - 'a');
+            if (child == null) {
+                Node created = new Node(c);
+                if (temp.next.compareAndSet(c - 'a', null, created)) {
+                    child = created;
+                } else { //another thread has added the same son
+                    child = temp.next.get(c - 'a');
+                }
+            }
+            temp = child;
+        }
+        while (true) {
+            int weight = temp.weight;
+            if (WEIGHT.compareAndSet(temp, weight, tuple.getWeight())) {
+                if (weight == -1) {
+                    size.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Determines whether there is a word in the concurrentTrie.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        Node temp = find(word);
+        return temp != null && temp.weight != -1;
+    }
+
+    /**
+     * Returns the score(weight) of word in the concurrentTrie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        Node temp = find(word);
+        return temp == null ? -1 : temp.weight;
+    }
+
+    /**
+     * Deletes word from the concurrentTrie.
+     *
+     * @param word to delete from the trie.
+     * @return true if a word has been removed from trie, false - else.
+     */
+    public boolean delete(String word) {
+        Node temp = find(word);
+        if (temp == null) {
+            return false;
+        }
+        while (true) {
+            int weight = temp.weight;
+            if (weight == -1) {
+                return false;
+            }
+            if (WEIGHT.compareAndSet(temp, weight, -1)) {
+                size.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Iterator for all words, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> new ConcurrentTrieIterator("", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new ConcurrentTrieIterator(pref, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new ConcurrentTrieIterator(pref, maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private Node find(String word) {
+        Node temp = root;
+        for (int i = 0; i < word.length() && temp != null; i++) {
+            temp = temp.next.get(word.charAt(i) - 'a');
+        }
+        return temp;
+    }
+
+    private class ConcurrentTrieIterator implements Iterator<String> {
+        private Queue<Node> nodes = new LinkedList<>();
+        private Queue<String> strings = new LinkedList<>();
+        private int maxDepth;
+        private String nextWord;
+
+        public ConcurrentTrieIterator(String pref, int maxDepth) {
+            this.maxDepth = maxDepth;
+            Node temp = find(pref);
+            if (temp != null && pref.length() <= maxDepth) {
+                nodes.add(temp);
+                strings.add(pref);
+            }
+            nextWord = getNextWord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (!nodes.isEmpty()) {
+                Node tempNode = nodes.remove();
+                String tempString = strings.remove();
+                if (tempString.length() < maxDepth) {
+                    for (int i = 0; i < R; i++) {
+                        Node child = tempNode.next.get(i);
+                        if (child != null) {
+                            nodes.add(child);
+                            strings.add(tempString + child.value);
+                        }
+                    }
+                }
+                if (tempNode.weight != -1 && tempNode != root) {
+                    return tempString;
+                }
+            }
+            return null;
+        }
+    }
+}
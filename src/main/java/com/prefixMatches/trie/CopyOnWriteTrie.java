@@ -0,0 +1,414 @@
+package com.prefixmatches.trie;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+/**
+ *  Implementation of the (@code Trie), which publishes immutable versions.
+ *  Readers always work with the latest published version and never block.
+ *  Writers are serialized and apply their changes to a new version, which
+ *  copies only the paths it changes and shares all other nodes with the
+ *  previous one; the new version becomes visible at once, when the batch is
+ *  over.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class CopyOnWriteTrie implements Trie {
+    private final static int R = 26;
+    private final Object writeLock = new Object();
+    private volatile Snapshot current;
+
+    private static class Node {
+        private char value;
+        private int weight;
+        private Node[] next;
+        private long version;
+
+        public Node(char value, long version) {
+            this.value = value;
+            this.version = version;
+            weight = -1;
+            next = new Node[R];
+        }
+    }
+
+    private static class Snapshot {
+        private final Node root;
+        private final int size;
+        private final long version;
+
+        public Snapshot(Node root, int size, long version) {
+            this.root = root;
+            this.size = size;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Changes of one version. Nodes created by the batch are changed in
+     * place, published ones are copied on first change.
+     */
+    public final class Batch {
+        private final long version;
+        private Node root;
+        private int size;
+
+        private Batch(Snapshot snapshot) {
+            version = snapshot.version + 1;
+            root = snapshot.root;
+            size = snapshot.size;
+        }
+
+        /**
+         * Adds to the new version a tuple.
+         *
+         * @param tuple consists from 2 elements - word(term) and his
+         *              score(weight)
+         */
+        public void add(Tuple tuple) {
+            root = copy(root);
+            Node temp = root;
+            for (int i = 0; i < tuple.getTerm().length(); i++) {
+                char c = tuple.getTerm().charAt(i);
+                Node child = temp.next[c - 'a'];
+                child = child == null ? new Node(c, version) : copy(child);
+                temp.next[c - 'a'] = child;
+                temp = child;
+            }
+            if (temp.weight == -1) {
+                size++;
+            }
+            temp.weight = tuple.getWeight();
+        }
+
+        /**
+         * Deletes word from the new version.
+         *
+         * @param word to delete from the trie.
+         * @return true if a word has been removed from trie, false - else.
+         */
+        public boolean delete(String word) {
+            if (!contains(word)) {
+                return false;
+            }
+            root = copy(root);
+            Node temp = root;
+            LinkedList<Node> stack = new LinkedList<>();
+            for (int i = 0; i < word.length(); i++) {
+                stack.addFirst(temp);
+                int index = word.charAt(i) - 'a';
+                temp.next[index] = copy(temp.next[index]);
+                temp = temp.next[index];
+            }
+            temp.weight = -1;
+            size--;
+            while (!stack.isEmpty() && temp.weight == -1 && isLeaf(temp)) {
+                Node parent = stack.pop();
+                parent.next[temp.value - 'a'] = null;
+                temp = parent;
+            }
+            return true;
+        }
+
+        /**
+         * Determines whether there is a word in the new version.
+         *
+         * @param word to verify the presence in trie.
+         * @return true if a word is in the trie, false - else.
+         */
+        public boolean contains(String word) {
+            Node temp = find(root, word);
+            return temp != null && temp.weight != -1;
+        }
+
+        private Node copy(Node node) {
+            if (node.version == version) {
+                return node;
+            }
+            Node copy = new Node(node.value, version);
+            copy.weight = node.weight;
+            copy.next = node.next.clone();
+            return copy;
+        }
+    }
+
+    /**
+     * Read-only view of one published version.
+     */
+    private static final class View implements Trie {
+        private final Snapshot snapshot;
+
+        private View(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        public void add(Tuple tuple) {
+            throw new UnsupportedOperationException("Snapshot is read-only");
+        }
+
+        public boolean contains(String word) {
+            Node temp = find(snapshot.root, word);
+            return temp != null && temp.weight != -1;
+        }
+
+        public int weight(String word) {
+            Node temp = find(snapshot.root, word);
+            return temp == null ? -1 : temp.weight;
+        }
+
+        public boolean delete(String word) {
+            throw new UnsupportedOperationException("Snapshot is read-only");
+        }
+
+        public Iterable<String> words() {
+            return wordsWithPrefix("");
+        }
+
+        public Iterable<String> wordsWithPrefix(String pref) {
+            return wordsWithPrefix(pref, Integer.MAX_VALUE);
+        }
+
+        public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+            return () -> new CopyOnWriteTrieIterator(snapshot.root, pref,
+                    maxDepth);
+        }
+
+        public int size() {
+            return snapshot.size;
+        }
+    }
+
+    /**
+     * Constructs an empty copyOnWriteTrie.
+     */
+    public CopyOnWriteTrie() {
+        current = new Snapshot(new Node(' ', 0), 0, 0);
+    }
+
+    /**
+     * Applies changes as one new version. Readers see either all of them
+     * or, until the batch is over, none; if changes throw an exception,
+     * nothing is published.
+     *
+     * @param changes adds and deletes words of the batch.
+     * @return the current version after the batch.
+     */
+    public long update(Consumer<Batch> changes) {
+        synchronized (writeLock) {
+            Batch batch = new Batch(current);
+            changes.accept(batch);
+            return publish(batch);
+        }
+    }
+
+    private long publish(Batch batch) {
+        if (batch.root != current.root) {
+            current = new Snapshot(batch.root, batch.size, batch.version);
+        }
+        return current.version;
+    }
+
+    /**
+     * Returns the number of the current version. It grows with every
+     * batch, which has added words or deleted any.
+     *
+     * @return the number of the current version.
+     */
+    public long version() {
+        return current.version;
+    }
+
+    /**
+     * Returns the current version as a read-only trie, which does not see
+     * further changes.
+     *
+     * @return read-only trie of the current version.
+     */
+    public Trie snapshot() {
+        return new View(current);
+    }
+
+    /**
+     * Adds to copyOnWriteTrie a tuple as a new version.
+     *
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
+     */
+    public void add(Tuple tuple) {
+        update(batch -> batch.add(tuple));
+    }
+
+    /**
+     * Adds to copyOnWriteTrie all tuples as one new version.
+     *
+     * @param tuples words(terms) with their scores(weights)
+     */
+    public void addAll(Collection<Tuple> tuples) {
+        update(batch -> tuples.forEach(batch::add));
+    }
+
+    /**
+     * Determines whether there is a word in the current version.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        return snapshot().contains(word);
+    }
+
+    /**
+     * Returns the score(weight) of word in the current version.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        return snapshot().weight(word);
+    }
+
+    /**
+     * Returns at most k words of the current version, which start with
+     * pref, with the highest weights; words with equal weights go in
+     * alphabetical order.
+     *
+     * @param pref prefix of each returned word.
+     * @param k    max count of returned words.
+     * @return words sorted by weight, from the highest.
+     */
+    public List<String> topK(String pref, int k) {
+        return snapshot().topK(pref, k);
+    }
+
+    /**
+     * Deletes word from the copyOnWriteTrie as a new version.
+     *
+     * @param word to delete from the trie.
+     * @return true if a word has been removed from trie, false - else.
+     */
+    public boolean delete(String word) {
+        synchronized (writeLock) {
+            Batch batch = new Batch(current);
+            boolean deleted = batch.delete(word);
+            publish(batch);
+            return deleted;
+        }
+    }
+
+    /**
+     * Iterator for all words of the current version, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return wordsWithPrefix("");
+    }
+
+    /**
+     * Iterator for all words of the current version, which starts with pref
+     * breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return wordsWithPrefix(pref, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words of the current version, which starts with pref
+     * and are not longer than maxDepth, breadth-first search. Each iterator
+     * works with the version, which was current when it was created.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new CopyOnWriteTrieIterator(current.root, pref,
+                maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in the current version.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return current.size;
+    }
+
+    private static Node find(Node root, String word) {
+        Node temp = root;
+        for (int i = 0; i < word.length() && temp != null; i++) {
+            temp = temp.next[word.charAt(i) - 'a'];
+        }
+        return temp;
+    }
+
+    private static boolean isLeaf(Node node) {
+        for (Node child : node.next) {
+            if (child != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class CopyOnWriteTrieIterator implements Iterator<String> {
+        private Queue<Node> nodes = new LinkedList<>();
+        private Queue<String> strings = new LinkedList<>();
+        private Node root;
+        private int maxDepth;
+        private String nextWord;
+
+        public CopyOnWriteTrieIterator(Node root, String pref, int maxDepth) {
+            this.root = root;
+            this.maxDepth = maxDepth;
+            Node temp = find(root, pref);
+            if (temp != null && pref.length() <= maxDepth) {
+                nodes.add(temp);
+                strings.add(pref);
+            }
+            nextWord = getNextWord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (!nodes.isEmpty()) {
+                Node tempNode = nodes.remove();
+                String tempString = strings.remove();
+                if (tempString.length() < maxDepth) {
+                    for (int i = 0; i < R; i++) {
+                        if (tempNode.next[i] != null) {
+                            nodes.add(tempNode.next[i]);
+                            strings.add(tempString + tempNode.next[i].value);
+                        }
+                    }
+                }
+                if (tempNode.weight != -1 && tempNode != root) {
+                    return tempString;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.prefixmatches.trie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ *  Minimal acyclic automaton (directed acyclic word graph) implementation of
+ *  the (@code Trie). Words must be added in sorted order; equal subtrees,
+ *  such as common suffixes, are stored once. Deletion is not supported.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class Dawg implements Trie {
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private Node root;
+    private Map<Node, Node> register;
+    private List<Node> unchecked;
+    private String previous;
+    private int size;
+
+    private static class Node {
+        private boolean word;
+        private char[] labels;
+        private Node[] next;
+
+        public Node() {
+            labels = NO_LABELS;
+            next = NO_CHILDREN;
+        }
+
+        private Node child(char c) {
+            int pos = Arrays.binarySearch(labels, c);
+            return pos < 0 ? null : next[pos];
+        }
+
+        /**
+         * Nodes are equal if they accept the same words, which is true for
+         * already minimized children when the children are the same objects.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) o;
+            if (word != other.word || !Arrays.equals(labels, other.labels)) {
+                return false;
+            }
+            for (int i = 0; i < next.length; i++) {
+                if (next[i] != other.next[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Arrays.hashCode(labels) * 2 + (word ? 1 : 0);
+            for (Node child : next) {
+                hash = hash * 31 + System.identityHashCode(child);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Constructs an empty dawg.
+     */
+    public Dawg() {
+        root = new Node();
+        register = new HashMap<>();
+        unchecked = new ArrayList<>();
+        previous = "";
+        size = 0;
+    }
+
+    /**
+     * Adds to dawg a tuple. The word must not be less than the previously
+     * added one.
+     *
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
+     * @throws IllegalArgumentException if words are not added in order.
+     */
+    public void add(Tuple tuple) {
+        String word = tuple.getTerm();
+        int order = word.compareTo(previous);
+        if (order < 0) {
+            throw new IllegalArgumentException(
+                    "Words must be added in sorted order: " + word);
+        }
+        if (order == 0 && size > 0) {
+            return;
+        }
+        int common = 0;
+        while (common < word.length() && common < previous.length()
+                && word.charAt(common) == previous.charAt(common)) {
+            common++;
+        }
+        minimize(common);
+        Node temp = unchecked.isEmpty() ? root
+                : unchecked.get(unchecked.size() - 1);
+        for (int i = common; i < word.length(); i++) {
+            Node child = new Node();
+            temp.labels = Arrays.copyOf(temp.labels, temp.labels.length + 1);
+            temp.next = Arrays.copyOf(temp.next, temp.next.length + 1);
+            temp.labels[temp.labels.length - 1] = word.charAt(i);
+            temp.next[temp.next.length - 1] = child;
+            unchecked.add(child);
+            temp = child;
+        }
+        temp.word = true;
+        previous = word;
+        size++;
+    }
+
+    /**
+     * Replaces the nodes of the last added word deeper than depth with their
+     * registered equals, or registers them. The nodes are processed from the
+     * bottom, so children are always minimized before their parent.
+     */
+    private void minimize(int depth) {
+        for (int i = unchecked.size() - 1; i >= depth; i--) {
+            Node node = unchecked.remove(i);
+            Node parent = i == 0 ? root : unchecked.get(i - 1);
+            Node same = register.get(node);
+            if (same == null) {
+                register.put(node, node);
+            } else {
+                parent.next[parent.next.length - 1] = same;
+            }
+        }
+    }
+
+    /**
+     * Determines whether there is a word in the dawg.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        Node temp = find(word);
+        return temp != null && temp.word;
+    }
+
+    /**
+     * Not supported, a dawg keeps no weights: states are shared between
+     * words.
+     *
+     * @param word ignored.
+     * @return nothing.
+     * @throws UnsupportedOperationException always.
+     */
+    public int weight(String word) {
+        throw new UnsupportedOperationException("Dawg keeps no weights");
+    }
+
+    /**
+     * Not supported, states of a dawg are shared between words.
+     *
+     * @param word ignored.
+     * @return nothing.
+     * @throws UnsupportedOperationException always.
+     */
+    public boolean delete(String word) {
+        throw new UnsupportedOperationException("Dawg does not support delete");
+    }
+
+    /**
+     * Iterator for all words, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> new DawgIterator("", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new DawgIterator(pref, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new DawgIterator(pref, maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    private Node find(String word) {
+        Node temp = root;
+        for (int i = 0; i < word.length() && temp != null; i++) {
+            temp = temp.child(word.charAt(i));
+        }
+        return temp;
+    }
+
+    private class DawgIterator implements Iterator<String> {
+        private Queue<Node> nodes = new LinkedList<>();
+        private Queue<String> strings = new LinkedList<>();
+        private int maxDepth;
+        private String nextWord;
+
+        public DawgIterator(String pref, int maxDepth) {
+            this.maxDepth = maxDepth;
+            Node temp = find(pref);
+            if (temp != null && pref.length() <= maxDepth) {
+                nodes.add(temp);
+                strings.add(pref);
+            }
+            nextWord = getNextWord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (!nodes.isEmpty()) {
+                Node tempNode = nodes.remove();
+                String tempString = strings.remove();
+                if (tempString.length() < maxDepth) {
+                    for (int i = 0; i < tempNode.next.length; i++) {
+                        nodes.add(tempNode.next[i]);
+                        strings.add(tempString + tempNode.labels[i]);
+                    }
+                }
+                if (tempNode.word && tempNode != root) {
+                    return tempString;
+                }
+            }
+            return null;
+        }
+    }
+}
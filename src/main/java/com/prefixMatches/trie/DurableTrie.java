@@ -0,0 +1,624 @@
+package com.prefixmatches.trie;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ *  Durable implementation of the (@code Trie): a rWayTrie, whose changes are
+ *  appended to a write-ahead log in a directory. Records are buffered in
+ *  memory and a background thread writes and fsyncs them in groups, so
+ *  adding costs about as much as in memory. On open the latest snapshot is
+ *  loaded and the log is replayed on top of it; when the log grows, it is
+ *  compacted into a new snapshot in the background.
+ *
+ *  <p>By default add() and delete() return before their record is on disk,
+ *  and a crash loses at most the last sync interval; sync() waits for all
+ *  earlier records. With syncWrites every change waits for the fsync of
+ *  its group. Changes and reads are thread-safe: iterators and streams go
+ *  over a copy of the words, taken under the same lock as changes, so they
+ *  see one state of the trie and may be used while it changes.
+ *
+ *  @author Denys Storozhenko
+ *  @see RWayTrie
+ */
+public class DurableTrie implements Trie, Closeable {
+    static final String SNAPSHOT = "snapshot.bin";
+    static final String LOG = "wal.log";
+    static final String OLD_LOG = "wal.old";
+    private static final byte ADD = 1;
+    private static final byte DELETE = 2;
+    private static final long SYNC_MILLIS = 10;
+    private static final long COMPACT_BYTES = 64L << 20;
+
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private final Object compactLock = new Object();
+    private final Path directory;
+    private final boolean syncWrites;
+    private final RWayTrie trie;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+    private final ExecutorService compactor;
+    private FileChannel log;
+    private long logBytes;
+    private long appended;
+    private long durable;
+    private boolean compacting;
+    private boolean closed;
+    private IOException failure;
+
+    private DurableTrie(Path directory, boolean syncWrites)
+            throws IOException {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+        Files.createDirectories(directory);
+        Path snapshot = directory.resolve(SNAPSHOT);
+        trie = Files.exists(snapshot) ? RWayTrie.load(snapshot)
+                : new RWayTrie();
+        Path oldLog = directory.resolve(OLD_LOG);
+        if (Files.exists(oldLog)) { //compaction has not finished
+            replay(oldLog);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            trie.save(bytes);
+            writeSnapshot(bytes.toByteArray());
+            Files.delete(oldLog);
+        }
+        log = FileChannel.open(directory.resolve(LOG),
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        logBytes = replay(log);
+        log.truncate(logBytes);
+        log.position(logBytes);
+        compactor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "DurableTrie-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher = new Thread(this::flushLoop, "DurableTrie-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens or creates a durableTrie in the directory. Changes return
+     * without waiting for disk.
+     *
+     * @param directory directory for the snapshot and the log.
+     * @return the restored durableTrie.
+     * @throws IOException if the directory can not be read.
+     */
+    public static DurableTrie open(Path directory) throws IOException {
+        return new DurableTrie(directory, false);
+    }
+
+    /**
+     * Opens or creates a durableTrie in the directory.
+     *
+     * @param directory  directory for the snapshot and the log.
+     * @param syncWrites whether every change waits until it is on disk.
+     * @return the restored durableTrie.
+     * @throws IOException if the directory can not be read.
+     */
+    public static DurableTrie open(Path directory, boolean syncWrites)
+            throws IOException {
+        return new DurableTrie(directory, syncWrites);
+    }
+
+    /**
+     * Adds to durableTrie a tuple and logs it.
+     *
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
+     */
+    public void add(Tuple tuple) {
+        long seq;
+        synchronized (lock) {
+            checkOpen();
+            trie.add(tuple);
+            seq = append(ADD, tuple.getTerm(), tuple.getWeight());
+        }
+        if (syncWrites) {
+            await(seq);
+        }
+    }
+
+    /**
+     * Deletes word from the durableTrie and logs it.
+     *
+     * @param word to delete from the trie.
+     * @return true if a word has been removed from trie, false - else.
+     */
+    public boolean delete(String word) {
+        long seq;
+        synchronized (lock) {
+            checkOpen();
+            if (!trie.delete(word)) {
+                return false;
+            }
+            seq = append(DELETE, word, 0);
+        }
+        if (syncWrites) {
+            await(seq);
+        }
+        return true;
+    }
+
+    /**
+     * Determines whether there is a word in the durableTrie.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        synchronized (lock) {
+            return trie.contains(word);
+        }
+    }
+
+    /**
+     * Returns the score(weight) of word in the durableTrie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        synchronized (lock) {
+            return trie.weight(word);
+        }
+    }
+
+    /**
+     * Iterator for all words, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> copy(trie.words()).iterator();
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> copy(trie.wordsWithPrefix(pref)).iterator();
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> copy(trie.wordsWithPrefix(pref, maxDepth)).iterator();
+    }
+
+    /**
+     * Iterator for the same words as wordsWithPrefix(pref, maxDepth), which
+     * passes to visits the number of nodes visited.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @param visits   receives the number of visited nodes.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth,
+                                            IntConsumer visits) {
+        return () -> copy(trie.wordsWithPrefix(pref, maxDepth, visits))
+                .iterator();
+    }
+
+    /**
+     * Sequential stream of all words, which start with pref, in
+     * alphabetical order, which may be made parallel(). The stream goes
+     * over a copy, so the trie may change while it is consumed.
+     *
+     * @param pref prefix of each word of the stream.
+     * @return stream of strings.
+     */
+    public Stream<String> wordStream(String pref) {
+        List<String> words;
+        synchronized (lock) {
+            words = trie.wordStream(pref).collect(Collectors.toList());
+        }
+        return words.stream();
+    }
+
+    /**
+     * Answers wordsWithPrefix(prefs[i], maxDepths[i]) for every i at once.
+     *
+     * @param prefs     prefix of each query.
+     * @param maxDepths max length of returned words of each query.
+     * @return words of each query, in the order of queries.
+     */
+    public List<List<String>> wordsWithPrefixes(String[] prefs,
+                                                int[] maxDepths) {
+        synchronized (lock) {
+            return trie.wordsWithPrefixes(prefs, maxDepths);
+        }
+    }
+
+    /**
+     * Returns the number of words, which start with pref.
+     *
+     * @param pref prefix of counted words.
+     * @return the number of words with the prefix.
+     */
+    public int countWithPrefix(String pref) {
+        synchronized (lock) {
+            return trie.countWithPrefix(pref);
+        }
+    }
+
+    /**
+     * Returns a page of words, which start with pref, in alphabetical
+     * order.
+     *
+     * @param pref   prefix of each returned word.
+     * @param offset number of words to skip.
+     * @param limit  max count of returned words.
+     * @return words from offset, at most limit.
+     */
+    public List<String> wordsWithPrefix(String pref, int offset, int limit) {
+        synchronized (lock) {
+            return trie.wordsWithPrefix(pref, offset, limit);
+        }
+    }
+
+    /**
+     * Returns at most k words, which start with a string within maxEdits
+     * edits from pref, in order of increasing distance.
+     *
+     * @param pref     mistyped prefix.
+     * @param maxEdits max count of inserted, deleted or replaced letters.
+     * @param k        max count of returned words.
+     * @return words sorted by distance.
+     */
+    public List<String> fuzzyWordsWithPrefix(String pref, int maxEdits,
+                                             int k) {
+        synchronized (lock) {
+            return trie.fuzzyWordsWithPrefix(pref, maxEdits, k);
+        }
+    }
+
+    /**
+     * Returns at most k words, which start with pref, with the highest
+     * weights; words with equal weights go in alphabetical order.
+     *
+     * @param pref prefix of each returned word.
+     * @param k    max count of returned words.
+     * @return words sorted by weight, from the highest.
+     */
+    public List<String> topK(String pref, int k) {
+        synchronized (lock) {
+            return trie.topK(pref, k);
+        }
+    }
+
+    /**
+     * Copies the words, which an iterator of the rWayTrie returns, while
+     * no change can remove its nodes.
+     */
+    private List<String> copy(Iterable<String> words) {
+        List<String> list = new ArrayList<>();
+        synchronized (lock) {
+            for (String word : words) {
+                list.add(word);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        synchronized (lock) {
+            return trie.size();
+        }
+    }
+
+    /**
+     * Waits until all changes made before are on disk.
+     *
+     * @throws IOException if the log can not be written.
+     */
+    public void sync() throws IOException {
+        long seq;
+        synchronized (lock) {
+            seq = appended;
+        }
+        try {
+            await(seq);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes a new snapshot and drops the log, which it covers. The log is
+     * switched at once, so changes go on while the snapshot is written.
+     *
+     * @throws IOException if the snapshot can not be written.
+     */
+    public void compact() throws IOException {
+        synchronized (compactLock) {
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            Path oldLog = directory.resolve(OLD_LOG);
+            synchronized (flushLock) {
+                flush();
+                synchronized (lock) {
+                    trie.save(snapshot);
+                }
+                log.close();
+                Files.move(directory.resolve(LOG), oldLog,
+                        StandardCopyOption.ATOMIC_MOVE);
+                log = FileChannel.open(directory.resolve(LOG),
+                        StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                synchronized (lock) {
+                    logBytes = 0;
+                }
+            }
+            writeSnapshot(snapshot.toByteArray());
+            Files.delete(oldLog);
+        }
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and renames it, so a crash
+     * leaves either the old snapshot or the new one.
+     */
+    private void writeSnapshot(byte[] snapshot) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(snapshot);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT),
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Writes all buffered changes to disk, waits for a running compaction
+     * and releases the log.
+     *
+     * @throws IOException if the log can not be written.
+     */
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+            compactor.shutdown();
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        synchronized (flushLock) {
+            flush();
+            log.close();
+        }
+        synchronized (lock) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("DurableTrie is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    /**
+     * Buffers a record: length, payload and its CRC32. Called under lock.
+     */
+    private long append(byte op, String word, int weight) {
+        boolean wake = syncWrites || pending.size() == 0;
+        record.reset();
+        DataOutputStream out = new DataOutputStream(record);
+        try {
+            out.writeByte(op);
+            out.writeInt(weight);
+            out.write(word.getBytes(StandardCharsets.UTF_8));
+            byte[] payload = record.toByteArray();
+            crc.reset();
+            crc.update(payload, 0, payload.length);
+            DataOutputStream pendingOut = new DataOutputStream(pending);
+            pendingOut.writeInt(payload.length);
+            pendingOut.write(payload);
+            pendingOut.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        appended++;
+        if (wake) {
+            lock.notifyAll();
+        }
+        return appended;
+    }
+
+    private void await(long seq) {
+        synchronized (lock) {
+            while (durable < seq && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(
+                            new InterruptedIOException());
+                }
+            }
+            if (durable < seq) {
+                throw new UncheckedIOException(failure);
+            }
+        }
+    }
+
+    /**
+     * Writes and fsyncs buffered records as one group.
+     */
+    private void flush() throws IOException {
+        synchronized (flushLock) {
+            byte[] data;
+            long seq;
+            synchronized (lock) {
+                if (pending.size() == 0) {
+                    return;
+                }
+                data = pending.toByteArray();
+                pending.reset();
+                seq = appended;
+            }
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(data);
+                while (bytes.hasRemaining()) {
+                    log.write(bytes);
+                }
+                log.force(false);
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                durable = seq;
+                logBytes += data.length;
+                lock.notifyAll();
+                if (logBytes > COMPACT_BYTES && !compacting && !closed) {
+                    compacting = true;
+                    compactor.execute(this::compactInBackground);
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            while (true) {
+                synchronized (lock) {
+                    while (pending.size() == 0 && !closed) {
+                        lock.wait();
+                    }
+                    if (pending.size() == 0) {
+                        return;
+                    }
+                    if (!syncWrites && !closed) { //let the group grow
+                        lock.wait(SYNC_MILLIS);
+                    }
+                }
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            return; //failure is kept and reported to writers
+        }
+    }
+
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e;
+                lock.notifyAll();
+            }
+        } finally {
+            synchronized (lock) {
+                compacting = false;
+            }
+        }
+    }
+
+    private long replay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            return replay(channel);
+        }
+    }
+
+    /**
+     * Applies records of the log to the trie and returns the length of its
+     * valid part; a torn or damaged tail is ignored.
+     */
+    private long replay(FileChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) channel.size());
+        while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+            continue;
+        }
+        bytes.flip();
+        int valid = 0;
+        while (bytes.remaining() >= 4) {
+            int length = bytes.getInt();
+            if (length < 5 || bytes.remaining() < length + 4) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            bytes.get(payload);
+            crc.reset();
+            crc.update(payload, 0, length);
+            if (bytes.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.wrap(payload);
+            byte op = record.get();
+            int weight = record.getInt();
+            String word = new String(payload, 5, length - 5,
+                    StandardCharsets.UTF_8);
+            if (op == ADD) {
+                trie.add(new Tuple(word, weight));
+            } else {
+                trie.delete(word);
+            }
+            valid = bytes.position();
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,353 @@
+package com.prefixmatches.trie;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ *  Read-only implementation of the (@code Trie) packed into flat arrays.
+ *  Nodes are numbered in breadth-first order, so the children of a node, as
+ *  well as all nodes of one level under a prefix, occupy a contiguous range
+ *  of ids. There are no per-node objects: a node costs a label, a weight,
+ *  an offset of its first child and an id of its parent.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class FrozenTrie implements Trie {
+    private char[] labels;
+    private int[] weights;
+    private int[] firstChild;
+    private int[] parents;
+    private int size;
+
+    /**
+     * Constructs a frozenTrie from words, for example from words() of
+     * another trie. Duplicates are ignored and every word gets its length
+     * as weight; to keep the weights of a rWayTrie use
+     * FrozenTrie(RWayTrie).
+     *
+     * @param words words of the dictionary in any order.
+     */
+    public FrozenTrie(Iterable<String> words) {
+        List<String> list = new ArrayList<>();
+        for (String word : words) {
+            list.add(word);
+        }
+        String[] sorted = list.toArray(new String[list.size()]);
+        Arrays.sort(sorted);
+        build(sorted);
+    }
+
+    /**
+     * Constructs a frozenTrie with the words and weights of a rWayTrie.
+     *
+     * @param trie source of words and their scores(weights).
+     */
+    public FrozenTrie(RWayTrie trie) {
+        this(trie.format());
+    }
+
+    private FrozenTrie(TrieFormat format) {
+        labels = format.labels;
+        weights = format.weights;
+        firstChild = format.firstChild;
+        size = format.size;
+        parents = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            for (int c = firstChild[i]; c < firstChild[i + 1]; c++) {
+                parents[c] = i;
+            }
+        }
+    }
+
+    /**
+     * Reads frozenTrie from a binary snapshot, written by save() of a
+     * frozenTrie or of a rWayTrie.
+     *
+     * @param path file with the snapshot.
+     * @return the restored frozenTrie.
+     * @throws IOException if the file can not be read or is not a snapshot.
+     */
+    public static FrozenTrie load(Path path) throws IOException {
+        return new FrozenTrie(TrieFormat.read(path));
+    }
+
+    /**
+     * Writes frozenTrie to out as a binary snapshot, see TrieFormat. The
+     * stream is flushed, but not closed.
+     *
+     * @param out stream for the snapshot.
+     * @throws IOException if the snapshot can not be written.
+     */
+    public void save(OutputStream out) throws IOException {
+        new TrieFormat(labels, weights, firstChild, size).write(out);
+    }
+
+    /**
+     * Writes frozenTrie to the file as a binary snapshot.
+     *
+     * @param path file for the snapshot.
+     * @throws IOException if the snapshot can not be written.
+     */
+    public void save(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            save(out);
+        }
+    }
+
+    /**
+     * Builds the arrays level by level. Every queued node is described by
+     * the range of sorted words, which start with its path.
+     */
+    private void build(String[] words) {
+        int capacity = 16;
+        labels = new char[capacity];
+        weights = new int[capacity];
+        firstChild = new int[capacity + 1];
+        parents = new int[capacity];
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        int[] depth = new int[capacity];
+        weights[0] = -1;
+        to[0] = words.length;
+        int count = 1;
+        for (int node = 0; node < count; node++) {
+            firstChild[node] = count;
+            int lo = from[node];
+            int hi = to[node];
+            int d = depth[node];
+            while (lo < hi && words[lo].length() == d) {
+                if (node != 0 && weights[node] == -1) {
+                    weights[node] = d;
+                    size++;
+                }
+                lo++;
+            }
+            while (lo < hi) {
+                char c = words[lo].charAt(d);
+                int end = lo + 1;
+                while (end < hi && words[end].charAt(d) == c) {
+                    end++;
+                }
+                if (count == labels.length) {
+                    capacity = labels.length * 2;
+                    labels = Arrays.copyOf(labels, capacity);
+                    weights = Arrays.copyOf(weights, capacity);
+                    firstChild = Arrays.copyOf(firstChild, capacity + 1);
+                    parents = Arrays.copyOf(parents, capacity);
+                    from = Arrays.copyOf(from, capacity);
+                    to = Arrays.copyOf(to, capacity);
+                    depth = Arrays.copyOf(depth, capacity);
+                }
+                labels[count] = c;
+                weights[count] = -1;
+                parents[count] = node;
+                from[count] = lo;
+                to[count] = end;
+                depth[count] = d + 1;
+                count++;
+                lo = end;
+            }
+        }
+        firstChild[count] = count;
+        labels = Arrays.copyOf(labels, count);
+        weights = Arrays.copyOf(weights, count);
+        firstChild = Arrays.copyOf(firstChild, count + 1);
+        parents = Arrays.copyOf(parents, count);
+    }
+
+    /**
+     * Not supported, frozenTrie is read-only.
+     *
+     * @param tuple ignored.
+     * @throws UnsupportedOperationException always.
+     */
+    public void add(Tuple tuple) {
+        throw new UnsupportedOperationException("FrozenTrie is read-only");
+    }
+
+    /**
+     * Determines whether there is a word in the frozenTrie.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        int node = find(word);
+        return node > 0 && weights[node] != -1;
+    }
+
+    /**
+     * Returns the score(weight) of word in the frozenTrie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        int node = find(word);
+        return node > 0 ? weights[node] : -1;
+    }
+
+    /**
+     * Not supported, frozenTrie is read-only.
+     *
+     * @param word ignored.
+     * @return nothing.
+     * @throws UnsupportedOperationException always.
+     */
+    public boolean delete(String word) {
+        throw new UnsupportedOperationException("FrozenTrie is read-only");
+    }
+
+    /**
+     * Iterator for all words, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> new FrozenTrieIterator("", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new FrozenTrieIterator(pref, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new FrozenTrieIterator(pref, maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns id of the node of word or -1.
+     */
+    private int find(String word) {
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+            node = child(node, word.charAt(i));
+            if (node < 0) {
+                return -1;
+            }
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        int low = firstChild[node];
+        int high = firstChild[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < c) {
+                low = mid + 1;
+            } else if (labels[mid] > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Walks the levels under the prefix node as ranges of ids; words are
+     * restored by climbing up to the prefix through parents.
+     */
+    private class FrozenTrieIterator implements Iterator<String> {
+        private String pref;
+        private char[] path;
+        private int maxDepth;
+        private int depth;
+        private int start;
+        private int current;
+        private int end;
+        private String nextWord;
+
+        public FrozenTrieIterator(String pref, int maxDepth) {
+            this.pref = pref;
+            this.maxDepth = maxDepth;
+            int node = find(pref);
+            depth = pref.length();
+            path = new char[depth];
+            pref.getChars(0, depth, path, 0);
+            if (node >= 0 && depth <= maxDepth) {
+                start = node;
+                current = node;
+                end = node + 1;
+                nextWord = getNextWord();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (true) {
+                if (current == end) { //level is over, go to the next one
+                    if (depth >= maxDepth) {
+                        return null;
+                    }
+                    start = firstChild[start];
+                    end = firstChild[end];
+                    current = start;
+                    if (start == end) {
+                        return null;
+                    }
+                    depth++;
+                    path = Arrays.copyOf(path, depth);
+                }
+                int node = current++;
+                if (weights[node] != -1 && node != 0) {
+                    return restore(node);
+                }
+            }
+        }
+
+        private String restore(int node) {
+            int temp = node;
+            for (int i = depth - 1; i >= pref.length(); i--) {
+                path[i] = labels[temp];
+                temp = parents[temp];
+            }
+            return new String(path, 0, depth);
+        }
+    }
+}
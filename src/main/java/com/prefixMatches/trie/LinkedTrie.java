@@ -0,0 +1,443 @@
+package com.prefixmatches.trie;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ *  Base of the tries, which keep their nodes in a store of their own
+ *  instead of objects. A node is an index into the store: its letter, its
+ *  weight, its first child and its next sibling, with siblings linked in
+ *  the order of letters. Nodes freed by delete() are linked into a free
+ *  list through their next sibling and reused by later adds. Subclasses
+ *  decide where the fields of a node are kept.
+ *
+ *  @author Denys Storozhenko
+ *  @see ArrayTrie
+ *  @see OffHeapTrie
+ */
+abstract class LinkedTrie implements Trie {
+    static final int ROOT = 0;
+    static final int NONE = 0; //root is nobody's child or sibling
+    private int nodes = 1;
+    private int free = NONE;
+    private int size;
+
+    abstract char label(int node);
+
+    abstract int weight(int node);
+
+    abstract int firstChild(int node);
+
+    abstract int nextSibling(int node);
+
+    abstract void setLabel(int node, char label);
+
+    abstract void setWeight(int node, int weight);
+
+    abstract void setFirstChild(int node, int child);
+
+    abstract void setNextSibling(int node, int sibling);
+
+    /**
+     * Makes room in the store for node, the next one after all allocated.
+     */
+    abstract void grow(int node);
+
+    /**
+     * Checks, that the store can be used; called by add, contains, delete
+     * and by iterators.
+     */
+    void checkOpen() {
+    }
+
+    /**
+     * Called after child has been linked into the children of parent.
+     */
+    void linked(int parent, int child) {
+    }
+
+    /**
+     * Called after child has been unlinked from the children of parent.
+     */
+    void unlinked(int parent, int child) {
+    }
+
+    /**
+     * Returns the number of nodes taken from the store, with the root and
+     * the free ones.
+     */
+    int allocatedNodes() {
+        return nodes;
+    }
+
+    /**
+     * Adds to the trie a tuple.
+     *
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
+     */
+    public void add(Tuple tuple) {
+        String word = tuple.getTerm();
+        checkOpen();
+        int node = ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            int child = child(node, c);
+            if (child == NONE) {
+                child = insert(node, c);
+            }
+            node = child;
+        }
+        if (weight(node) == -1) {
+            size++;
+        }
+        setWeight(node, tuple.getWeight());
+    }
+
+    /**
+     * Determines whether there is a word in the trie.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        checkOpen();
+        int node = find(word);
+        return node != -1 && weight(node) != -1;
+    }
+
+    /**
+     * Returns the score(weight) of word in the trie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        checkOpen();
+        int node = find(word);
+        return node == -1 ? -1 : weight(node);
+    }
+
+    /**
+     * Deletes word from the trie. Nodes, which are left without words below
+     * them, are unlinked and reused by later adds.
+     *
+     * @param word to delete from the trie.
+     * @return true if a word has been removed from trie, false - else.
+     */
+    public boolean delete(String word) {
+        int[] path = new int[word.length() + 1];
+        checkOpen();
+        path[0] = ROOT;
+        for (int i = 0; i < word.length(); i++) {
+            int child = child(path[i], word.charAt(i));
+            if (child == NONE) {
+                return false;
+            }
+            path[i + 1] = child;
+        }
+        int node = path[word.length()];
+        if (weight(node) == -1) {
+            return false;
+        }
+        setWeight(node, -1);
+        size--;
+        for (int i = word.length(); i > 0; i--) {
+            node = path[i];
+            if (weight(node) != -1 || firstChild(node) != NONE) {
+                break;
+            }
+            unlink(path[i - 1], node);
+            setNextSibling(node, free);
+            free = node;
+        }
+        return true;
+    }
+
+    /**
+     * Iterator for all words, breadth-first search in one pass.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> new LinkedTrieIterator("");
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search
+     * in one pass.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new LinkedTrieIterator(pref);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, in breadth-first order. Like rWayTrie, it makes one
+     * depth-first pass per word length over a stack of node indexes, so
+     * only returned words allocate and nodes deeper than maxDepth are never
+     * visited. The trie must not change during the iteration.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new DepthFirstIterator(pref, maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the node of pref, or -1 if there is no such node.
+     */
+    private int find(String pref) {
+        int node = ROOT;
+        for (int i = 0; i < pref.length(); i++) {
+            node = child(node, pref.charAt(i));
+            if (node == NONE) {
+                return -1;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns the child of node with letter c, or NONE if there is no such
+     * child.
+     */
+    int child(int node, char c) {
+        int child = firstChild(node);
+        while (child != NONE && label(child) < c) {
+            child = nextSibling(child);
+        }
+        return child != NONE && label(child) == c ? child : NONE;
+    }
+
+    private int insert(int node, char c) {
+        int previous = NONE;
+        int child = firstChild(node);
+        while (child != NONE && label(child) < c) {
+            previous = child;
+            child = nextSibling(child);
+        }
+        int created = allocate(c);
+        setNextSibling(created, child);
+        if (previous == NONE) {
+            setFirstChild(node, created);
+        } else {
+            setNextSibling(previous, created);
+        }
+        linked(node, created);
+        return created;
+    }
+
+    private void unlink(int parent, int node) {
+        int child = firstChild(parent);
+        if (child == node) {
+            setFirstChild(parent, nextSibling(node));
+        } else {
+            while (nextSibling(child) != node) {
+                child = nextSibling(child);
+            }
+            setNextSibling(child, nextSibling(node));
+        }
+        unlinked(parent, node);
+    }
+
+    private int allocate(char c) {
+        int node;
+        if (free != NONE) {
+            node = free;
+            free = nextSibling(node);
+        } else {
+            grow(nodes);
+            node = nodes++;
+        }
+        setLabel(node, c);
+        setWeight(node, -1);
+        setFirstChild(node, NONE);
+        setNextSibling(node, NONE);
+        return node;
+    }
+
+    /**
+     * Visits every node under pref once, level by level, keeping the nodes
+     * of the next level and their paths in a queue of two ring arrays.
+     */
+    private class LinkedTrieIterator implements Iterator<String> {
+        private int[] nodes = new int[16];
+        private String[] strings = new String[16];
+        private int head;
+        private int count;
+        private String nextWord;
+
+        public LinkedTrieIterator(String pref) {
+            checkOpen();
+            int start = find(pref);
+            if (start != -1) {
+                offer(start, pref);
+            }
+            nextWord = getNextWord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (count > 0) {
+                int node = nodes[head];
+                String string = strings[head];
+                strings[head] = null;
+                head = (head + 1) % nodes.length;
+                count--;
+                for (int child = firstChild(node); child != NONE;
+                     child = nextSibling(child)) {
+                    offer(child, string + label(child));
+                }
+                if (weight(node) != -1 && node != ROOT) {
+                    return string;
+                }
+            }
+            return null;
+        }
+
+        private void offer(int node, String string) {
+            if (count == nodes.length) { //unroll the ring into a bigger one
+                int[] grownNodes = new int[count * 2];
+                String[] grownStrings = new String[count * 2];
+                for (int i = 0; i < count; i++) {
+                    grownNodes[i] = nodes[(head + i) % count];
+                    grownStrings[i] = strings[(head + i) % count];
+                }
+                nodes = grownNodes;
+                strings = grownStrings;
+                head = 0;
+            }
+            int tail = (head + count) % nodes.length;
+            nodes[tail] = node;
+            strings[tail] = string;
+            count++;
+        }
+    }
+
+    private class DepthFirstIterator implements Iterator<String> {
+        private int[] stack;
+        private char[] path;
+        private int start;
+        private int base;
+        private int maxDepth;
+        private int targetDepth;
+        private int top;
+        private boolean reached;
+        private String nextWord;
+
+        public DepthFirstIterator(String pref, int maxDepth) {
+            checkOpen();
+            this.maxDepth = maxDepth;
+            start = find(pref);
+            base = pref.length();
+            path = new char[base + 1];
+            pref.getChars(0, base, path, 0);
+            stack = new int[1];
+            stack[0] = start;
+            targetDepth = base;
+            top = start != -1 && base <= maxDepth ? 0 : -1;
+            nextWord = getNextWord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (true) {
+                if (top < 0) { //pass is over, start the next level if any
+                    if (!reached || targetDepth >= maxDepth) {
+                        return null;
+                    }
+                    targetDepth++;
+                    reached = false;
+                    stack[0] = start;
+                    top = 0;
+                    continue;
+                }
+                int node = stack[top];
+                int depth = base + top;
+                if (depth == targetDepth) {
+                    reached = true;
+                    String word = weight(node) != -1 && node != ROOT
+                            ? new String(path, 0, depth) : null;
+                    advance();
+                    if (word != null) {
+                        return word;
+                    }
+                    continue;
+                }
+                int child = firstChild(node);
+                if (child == NONE) {
+                    advance();
+                    continue;
+                }
+                if (top + 1 == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, path.length * 2);
+                }
+                top++;
+                stack[top] = child;
+                path[depth] = label(child);
+            }
+        }
+
+        /**
+         * Moves to the next sibling of the top node, or of the nearest
+         * node below it, which has one.
+         */
+        private void advance() {
+            while (top > 0) {
+                int sibling = nextSibling(stack[top]);
+                if (sibling != NONE) {
+                    stack[top] = sibling;
+                    path[base + top - 1] = label(sibling);
+                    return;
+                }
+                top--;
+            }
+            top = -1;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.prefixmatches.trie;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ *  Read-only implementation of the (@code Trie), which answers queries
+ *  straight from a memory-mapped snapshot file (see TrieFormat), without
+ *  reading it into the heap. Opening is instant, the heap does not depend on
+ *  the size of the dictionary, and processes mapping the same file share
+ *  its pages in the page cache. Files must be smaller than 2 GB.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class MappedTrie implements Trie {
+    private MappedByteBuffer buffer;
+    private int nodes;
+    private int weights;
+    private int labels;
+    private int size;
+
+    private MappedTrie(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        nodes = TrieFormat.checkHeader(buffer, buffer.capacity());
+        size = buffer.getInt(12);
+        weights = (int) TrieFormat.weightsOffset(nodes);
+        labels = (int) TrieFormat.labelsOffset(nodes);
+        TrieFormat.checkNodes(this::firstChild, this::weight, nodes, size);
+    }
+
+    /**
+     * Maps a snapshot file, written by save() of a rWayTrie or a frozenTrie.
+     *
+     * @param path file with the snapshot.
+     * @return mappedTrie over the file.
+     * @throws IOException if the file can not be mapped or is not a
+     *                     snapshot.
+     */
+    public static MappedTrie open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Trie snapshot is too large to map");
+            }
+            if (channel.size() < TrieFormat.HEADER_SIZE) {
+                throw new IOException("Trie snapshot is truncated");
+            }
+            return new MappedTrie(channel.map(FileChannel.MapMode.READ_ONLY,
+                    0, channel.size()));
+        }
+    }
+
+    /**
+     * Not supported, mappedTrie is read-only.
+     *
+     * @param tuple ignored.
+     * @throws UnsupportedOperationException always.
+     */
+    public void add(Tuple tuple) {
+        throw new UnsupportedOperationException("MappedTrie is read-only");
+    }
+
+    /**
+     * Determines whether there is a word in the mappedTrie.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        int node = find(word);
+        return node > 0 && weight(node) != -1;
+    }
+
+    /**
+     * Returns the score(weight) of word in the mappedTrie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        int node = find(word);
+        return node > 0 ? weight(node) : -1;
+    }
+
+    /**
+     * Not supported, mappedTrie is read-only.
+     *
+     * @param word ignored.
+     * @return nothing.
+     * @throws UnsupportedOperationException always.
+     */
+    public boolean delete(String word) {
+        throw new UnsupportedOperationException("MappedTrie is read-only");
+    }
+
+    /**
+     * Iterator for all words, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> new MappedTrieIterator("", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new MappedTrieIterator(pref, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new MappedTrieIterator(pref, maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int firstChild(int node) {
+        return buffer.getInt(TrieFormat.HEADER_SIZE + 4 * node);
+    }
+
+    private int weight(int node) {
+        return buffer.getInt(weights + 4 * node);
+    }
+
+    private char label(int node) {
+        return buffer.getChar(labels + 2 * node);
+    }
+
+    /**
+     * Returns id of the node of word or -1.
+     */
+    private int find(String word) {
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+            node = child(node, word.charAt(i));
+            if (node < 0) {
+                return -1;
+            }
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        int low = firstChild(node);
+        int high = firstChild(node + 1) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midLabel = label(mid);
+            if (midLabel < c) {
+                low = mid + 1;
+            } else if (midLabel > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns id of the parent of node, the last node whose children start
+     * at or before it.
+     */
+    private int parent(int node) {
+        int low = 0;
+        int high = node - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (firstChild(mid) <= node) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Walks the levels under the prefix node as ranges of ids, like the
+     * iterator of FrozenTrie; the file has no parent ids, so they are found
+     * by binary search over first child ids.
+     */
+    private class MappedTrieIterator implements Iterator<String> {
+        private int prefLength;
+        private char[] path;
+        private int maxDepth;
+        private int depth;
+        private int start;
+        private int current;
+        private int end;
+        private String nextWord;
+
+        public MappedTrieIterator(String pref, int maxDepth) {
+            this.maxDepth = maxDepth;
+            prefLength = pref.length();
+            depth = prefLength;
+            path = pref.toCharArray();
+            int node = find(pref);
+            if (node >= 0 && depth <= maxDepth) {
+                start = node;
+                current = node;
+                end = node + 1;
+                nextWord = getNextWord();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (true) {
+                if (current == end) { //level is over, go to the next one
+                    if (depth >= maxDepth) {
+                        return null;
+                    }
+                    start = firstChild(start);
+                    end = firstChild(end);
+                    current = start;
+                    if (start == end) {
+                        return null;
+                    }
+                    depth++;
+                    path = Arrays.copyOf(path, depth);
+                }
+                int node = current++;
+                if (weight(node) != -1 && node != 0) {
+                    return restore(node);
+                }
+            }
+        }
+
+        private String restore(int node) {
+            int temp = node;
+            for (int i = depth - 1; i >= prefLength; i--) {
+                path[i] = label(temp);
+                temp = parent(temp);
+            }
+            return new String(path, 0, depth);
+        }
+    }
+}
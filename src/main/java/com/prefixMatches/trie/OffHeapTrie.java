@@ -0,0 +1,161 @@
+package com.prefixmatches.trie;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ *  Implementation of the (@code Trie), which keeps its nodes off the heap,
+ *  in direct byteBuffers of 1 MB (pages), so that dictionaries of tens of
+ *  millions of words neither need a heap of their size nor make garbage
+ *  collection slower. Nodes are laid out as in arrayTrie: a node is an
+ *  index, which addresses 16 bytes of a page with its letter, its weight,
+ *  its first child and its next sibling; freed nodes are reused. Pages are
+ *  allocated as the trie grows, and close() releases them. Not thread-safe,
+ *  and must not be closed while it is iterated.
+ *
+ *  @author Denys Storozhenko
+ *  @see ArrayTrie
+ */
+public class OffHeapTrie extends LinkedTrie implements Closeable {
+    private static final int NODE_BYTES = 16;
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_NODES = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_NODES - 1;
+    private static final int LABEL = 0;
+    private static final int WEIGHT = 4;
+    private static final int FIRST_CHILD = 8;
+    private static final int NEXT_SIBLING = 12;
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    private ByteBuffer[] pages;
+    private int pageCount;
+    private boolean closed;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try { //Java 9+, direct buffers are freed by Unsafe.invokeCleaner()
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null; //Java 8, see free()
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * Constructs an empty offHeapTrie.
+     */
+    public OffHeapTrie() {
+        pages = new ByteBuffer[4];
+        pages[0] = ByteBuffer.allocateDirect(PAGE_NODES * NODE_BYTES);
+        pageCount = 1;
+        setWeight(ROOT, -1);
+    }
+
+    /**
+     * Returns the number of bytes of off-heap memory taken by the pages.
+     *
+     * @return allocated off-heap bytes, 0 after close().
+     */
+    public long offHeapBytes() {
+        return (long) pageCount * PAGE_NODES * NODE_BYTES;
+    }
+
+    /**
+     * Releases the off-heap memory at once, through the cleaners of the
+     * pages; if the JVM does not allow it, the memory is freed when the
+     * garbage collector finds the pages unreachable. Later calls of add,
+     * contains, delete and of iterators throw IllegalStateException.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < pageCount; i++) {
+            free(pages[i]);
+            pages[i] = null;
+        }
+        pageCount = 0;
+    }
+
+    void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("OffHeapTrie is closed");
+        }
+    }
+
+    private static void free(ByteBuffer page) {
+        try {
+            if (UNSAFE != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, page);
+            } else {
+                Method cleaner = page.getClass().getMethod("cleaner");
+                cleaner.setAccessible(true);
+                Object clean = cleaner.invoke(page);
+                clean.getClass().getMethod("clean").invoke(clean);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            //left to the garbage collector
+        }
+    }
+
+    char label(int node) {
+        return pages[node >>> PAGE_BITS].getChar(offset(node) + LABEL);
+    }
+
+    int weight(int node) {
+        return pages[node >>> PAGE_BITS].getInt(offset(node) + WEIGHT);
+    }
+
+    int firstChild(int node) {
+        return pages[node >>> PAGE_BITS].getInt(offset(node) + FIRST_CHILD);
+    }
+
+    int nextSibling(int node) {
+        return pages[node >>> PAGE_BITS].getInt(offset(node) + NEXT_SIBLING);
+    }
+
+    void setLabel(int node, char label) {
+        pages[node >>> PAGE_BITS].putChar(offset(node) + LABEL, label);
+    }
+
+    void setWeight(int node, int weight) {
+        pages[node >>> PAGE_BITS].putInt(offset(node) + WEIGHT, weight);
+    }
+
+    void setFirstChild(int node, int child) {
+        pages[node >>> PAGE_BITS].putInt(offset(node) + FIRST_CHILD, child);
+    }
+
+    void setNextSibling(int node, int sibling) {
+        pages[node >>> PAGE_BITS].putInt(offset(node) + NEXT_SIBLING,
+                sibling);
+    }
+
+    void grow(int node) {
+        if (node == Integer.MAX_VALUE) {
+            throw new IllegalStateException("OffHeapTrie is full");
+        }
+        if (node >>> PAGE_BITS == pageCount) {
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pages.length * 2);
+            }
+            pages[pageCount++] = ByteBuffer.allocateDirect(
+                    PAGE_NODES * NODE_BYTES);
+        }
+    }
+
+    private static int offset(int node) {
+        return (node & PAGE_MASK) * NODE_BYTES;
+    }
+}
@@ -1,25 +1,42 @@
 package com.prefixmatches.trie;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- *  In-memory dictionary implementation of the (@code Trie).
+ *  In-memory dictionary implementation of the (@code Trie). Every node keeps
+ *  the max weight of its subtree, so topK() visits only the branches, which
+ *  can still hold one of the best words, and the count of words in its
+ *  subtree, so countWithPrefix() and pages of words skip whole subtrees.
  *
  *  @author Denys Storozhenko
  *  @see Trie
  */
 public class RWayTrie implements Trie {
     private final static int R = 26;
+    private final static int PARALLEL_THRESHOLD = 1024;
     private Node root;
     private int size;
 
     private static class Node {
         private char value;
         private int weight;
+        private int max;
+        private int count;
         private Node[] next;
 
         public Node() {
             weight = -1;
+            max = -1;
             next = new Node[R];
         }
     }
@@ -35,26 +52,132 @@ public class RWayTrie implements Trie {
     /**
      * Adds to rWayTrie a tuple.
      *
-     * @param tuple consists from 2 elements - word(term) and his length(weight)
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
      */
     public void add(Tuple tuple) {
-        Node temp = root;
-        boolean flag = false;
-        for (int i = 0; i < tuple.getWeight(); i++) {
-            char c = tuple.getTerm().charAt(i);
-            if (temp.next[c - 'a'] != null) { //if there is son with value 'c'
-                temp = temp.next[c - 'a'];
+        if (insert(root, tuple, 0)) { //increase the size, if no such
+            size++;                   //word as term in dictionary
+        }
+    }
+
+    /**
+     * Adds to rWayTrie all tuples. Tuples are split by the first letter, and
+     * the subtries under the root are filled in parallel on the common
+     * ForkJoinPool; the result is the same as adding them one by one.
+     *
+     * @param tuples words(terms) with their scores(weights)
+     */
+    public void addAll(Collection<Tuple> tuples) {
+        if (tuples.size() < PARALLEL_THRESHOLD) {
+            for (Tuple tuple : tuples) {
+                add(tuple);
+            }
+            return;
+        }
+        List<List<Tuple>> buckets = new ArrayList<>(R);
+        for (int i = 0; i < R; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (Tuple tuple : tuples) {
+            if (tuple.getTerm().isEmpty()) {
+                add(tuple);
+            } else {
+                buckets.get(tuple.getTerm().charAt(0) - 'a').add(tuple);
+            }
+        }
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < R; i++) {
+            List<Tuple> bucket = buckets.get(i);
+            if (bucket.isEmpty()) {
                 continue;
             }
-            flag = true;
-            temp.next[c - 'a'] = new Node();
-            temp.next[c - 'a'].value = c;
+            if (root.next[i] == null) {
+                root.next[i] = new Node();
+                root.next[i].value = (char) ('a' + i);
+            }
+            Node subtrie = root.next[i];
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                int added = 0;
+                for (Tuple tuple : bucket) {
+                    if (insert(subtrie, tuple, 1)) {
+                        added++;
+                    }
+                }
+                return added;
+            }));
+        }
+        for (ForkJoinTask<Integer> task : tasks) {
+            int added = task.join();
+            size += added;
+            root.count += added;
+        }
+        updateMax(root, "", 0);
+    }
+
+    /**
+     * Adds the tuple below node, which is the node of its first from
+     * letters.
+     *
+     * @return true if the word was not in the trie.
+     */
+    private static boolean insert(Node node, Tuple tuple, int from) {
+        String term = tuple.getTerm();
+        int weight = tuple.getWeight();
+        Node temp = node;
+        temp.max = Math.max(temp.max, weight);
+        for (int i = from; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (temp.next[c - 'a'] == null) {
+                temp.next[c - 'a'] = new Node();
+                temp.next[c - 'a'].value = c;
+            }
             temp = temp.next[c - 'a'];
+            temp.max = Math.max(temp.max, weight);
+        }
+        int old = temp.weight;
+        temp.weight = weight;
+        if (weight < old) { //old weight may still be the max on the path
+            updateMax(node, term, from);
+        }
+        if (old != -1) {
+            return false;
         }
-        if (flag || temp.weight == -1) { //increase the size, if no such
-            size++;                      //word as term in dictionary
+        temp = node;
+        temp.count++;
+        for (int i = from; i < term.length(); i++) {
+            temp = temp.next[term.charAt(i) - 'a'];
+            temp.count++;
         }
-        temp.weight = tuple.getWeight();
+        return true;
+    }
+
+    /**
+     * Recomputes max weights of the nodes on the path of word below node,
+     * which is the node of its first from letters, from the bottom up.
+     */
+    private static void updateMax(Node node, String word, int from) {
+        if (from < word.length()) {
+            Node child = node.next[word.charAt(from) - 'a'];
+            if (child != null) {
+                updateMax(child, word, from + 1);
+            }
+        }
+        int max = node.weight;
+        for (Node child : node.next) {
+            if (child != null && child.max > max) {
+                max = child.max;
+            }
+        }
+        node.max = max;
+    }
+
+    private static boolean isLeaf(Node node) {
+        for (Node child : node.next) {
+            if (child != null) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -74,6 +197,17 @@ public class RWayTrie implements Trie {
         return temp.weight != -1;
     }
 
+    /**
+     * Returns the score(weight) of word in the rWayTrie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        Node temp = find(word);
+        return temp == null ? -1 : temp.weight;
+    }
+
     /**
      * Deletes word from the rWayTrie.
      *
@@ -85,27 +219,25 @@ public class RWayTrie implements Trie {
             return false;
         }
         Node temp = root;
+        temp.count--;
         LinkedList<Node> stack = new LinkedList<>();
         for (int i = 0; i < word.length(); i++) {
             stack.addFirst(temp.next[word.charAt(i) - 'a']);
             temp = temp.next[word.charAt(i) - 'a'];
+            temp.count--;
         }
+        size--;
 
-        if (!stack.isEmpty()) {
-            stack.peek().weight = -1;
-        }
+        temp.weight = -1;
         while (!stack.isEmpty()) {
             temp = stack.pop();
-            for (int i = 0; i < temp.next.length; i++) {
-                if (temp.next[i] != null) { //if there is at least one son,
-                    return true;            //node can not be removed
-                }
-            }
-            if ((temp.weight == -1 || temp.weight >= word.length()) &&
-                    !stack.isEmpty()) {
-                stack.peek().next[temp.value - 'a'] = null;
-            }
+            if (temp.weight != -1 || !isLeaf(temp)) { //node keeps other
+                break;                                //words, can not be
+            }                                         //removed
+            Node parent = stack.isEmpty() ? root : stack.peek();
+            parent.next[temp.value - 'a'] = null;
         }
+        updateMax(root, word, 0);
         return true;
     }
 
@@ -115,7 +247,7 @@ public class RWayTrie implements Trie {
      * @return iterable of strings.
      */
     public Iterable<String> words() {
-        return RWayTrieIterator::new;
+        return () -> new RWayTrieIterator("");
     }
 
     /**
@@ -124,66 +256,881 @@ public class RWayTrie implements Trie {
      * @return iterable of strings.
      */
     public Iterable<String> wordsWithPrefix(String pref) {
-        return () -> new RWayTrieIterator<>(pref);
+        return () -> new RWayTrieIterator(pref);
     }
 
-    private class RWayTrieIterator<T> implements Iterator<T> {
-        private Queue<Node> nodes = new LinkedList<>();
-        private Queue<String> strings = new LinkedList<>();
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, in breadth-first order. Nodes deeper than maxDepth are never
+     * visited, so the cost depends on the size of the answer rather than
+     * on the size of the subtree under pref.
+     *
+     * <p>Uses iterative deepening over a reusable path buffer: one
+     * depth-first pass per word length, each returning the words of exactly
+     * that length. Only returned words allocate a string, at the price of
+     * re-walking the upper levels once per pass, which is cheap for the
+     * small depth windows used by prefix queries.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new DepthFirstIterator(pref, maxDepth, null);
+    }
+
+    /**
+     * Iterator for the same words as wordsWithPrefix(pref, maxDepth), which
+     * passes to visits the number of nodes visited by all passes, once the
+     * words are exhausted.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @param visits   receives the number of visited nodes.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth,
+                                            IntConsumer visits) {
+        return () -> new DepthFirstIterator(pref, maxDepth, visits);
+    }
+
+    /**
+     * Sequential stream of all words, which start with pref, in
+     * alphabetical order, which may be made parallel(). The stream knows
+     * its exact size from the counts of subtrees, and splits between
+     * subtrees of children of the same weight, going deeper into the
+     * trie when one subtree is left. The trie must not change while the
+     * stream is consumed.
+     *
+     * @param pref prefix of each word of the stream.
+     * @return stream of strings.
+     */
+    public Stream<String> wordStream(String pref) {
+        Node node = find(pref);
+        Node[] nodes = node == null ? new Node[0] : new Node[]{node};
+        String[] words = node == null ? new String[0] : new String[]{pref};
+        return StreamSupport.stream(new WordSpliterator(nodes, words, 0,
+                nodes.length, null), false);
+    }
+
+    /**
+     * Returns the number of words, which start with pref, in the time of
+     * walking down pref.
+     *
+     * @param pref prefix of counted words.
+     * @return the number of words with the prefix.
+     */
+    public int countWithPrefix(String pref) {
+        Node tempNode = find(pref);
+        if (tempNode == null) {
+            return 0;
+        }
+        return tempNode == root && root.weight != -1 ? root.count - 1
+                : tempNode.count;
+    }
+
+    /**
+     * Returns a page of words, which start with pref, in alphabetical
+     * order. Subtrees before offset are skipped by their counts, so a deep
+     * page costs about the same as the first one.
+     *
+     * @param pref   prefix of each returned word.
+     * @param offset number of words to skip.
+     * @param limit  max count of returned words.
+     * @return words from offset, at most limit.
+     */
+    public List<String> wordsWithPrefix(String pref, int offset, int limit) {
+        List<String> result = new ArrayList<>();
+        Node tempNode = find(pref);
+        if (tempNode != null && limit > 0) {
+            page(tempNode, new StringBuilder(pref), Math.max(offset, 0),
+                    limit, result);
+        }
+        return result;
+    }
+
+    /**
+     * Adds words of the subtree of node to result in alphabetical order,
+     * after skipping skip of them; returns how many are still to skip.
+     */
+    private int page(Node node, StringBuilder word, int skip, int limit,
+                     List<String> result) {
+        if (node.weight != -1 && node != root) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                result.add(word.toString());
+            }
+        }
+        for (int i = 0; i < R && result.size() < limit; i++) {
+            Node child = node.next[i];
+            if (child == null) {
+                continue;
+            }
+            if (child.count <= skip) { //whole subtree is before the page
+                skip -= child.count;
+                continue;
+            }
+            word.append(child.value);
+            skip = page(child, word, skip, limit, result);
+            word.setLength(word.length() - 1);
+        }
+        return skip;
+    }
+
+    private Node find(String pref) {
+        Node tempNode = root;
+        for (int i = 0; i < pref.length() && tempNode != null; i++) {
+            tempNode = tempNode.next[pref.charAt(i) - 'a'];
+        }
+        return tempNode;
+    }
+
+    /**
+     * Returns at most k words, which start with a string within maxEdits
+     * edits (Levenshtein distance) from pref, in order of increasing
+     * distance; words at the same distance go in alphabetical order.
+     *
+     * <p>The trie is walked with one row of the edit distance table per
+     * depth, reused between branches; a branch is left as soon as no cell
+     * of its row is within maxEdits. A node whose whole path is closer to
+     * pref than any node above it becomes a match, and words of its subtree
+     * are taken from matches of the lowest distance first.
+     *
+     * @param pref     mistyped prefix.
+     * @param maxEdits max count of inserted, deleted or replaced letters.
+     * @param k        max count of returned words.
+     * @return words sorted by distance.
+     */
+    public List<String> fuzzyWordsWithPrefix(String pref, int maxEdits,
+                                             int k) {
+        List<String> result = new ArrayList<>();
+        if (k <= 0 || maxEdits < 0) {
+            return result;
+        }
+        int m = pref.length();
+        int[][] rows = new int[m + maxEdits + 2][m + 1];
+        for (int i = 0; i <= m; i++) {
+            rows[0][i] = i;
+        }
+        List<Match> matches = new ArrayList<>();
+        match(root, new StringBuilder(), pref, rows, 0, Integer.MAX_VALUE,
+                maxEdits, matches);
+        Collections.sort(matches);
+        Map<Node, Integer> distances = new IdentityHashMap<>();
+        for (Match match : matches) {
+            distances.put(match.node, match.distance);
+        }
+        for (int i = 0; i < matches.size() && result.size() < k; i++) {
+            Match match = matches.get(i);
+            collect(match.node, new StringBuilder(match.word), match.distance,
+                    distances, k, result);
+        }
+        return result;
+    }
+
+    /**
+     * Finds matches below node, whose row of the edit distance table is
+     * rows[depth]; best is the lowest distance of a node above.
+     */
+    private void match(Node node, StringBuilder word, String pref,
+                       int[][] rows, int depth, int best, int maxEdits,
+                       List<Match> matches) {
+        int[] row = rows[depth];
+        int m = pref.length();
+        if (row[m] < best && row[m] <= maxEdits) {
+            matches.add(new Match(node, word.toString(), row[m]));
+            best = row[m];
+        }
+        int min = row[0];
+        for (int i = 1; i <= m; i++) {
+            min = Math.min(min, row[i]);
+        }
+        if (min > maxEdits || min >= best) { //no closer match below
+            return;
+        }
+        int[] next = rows[depth + 1];
+        for (Node child : node.next) {
+            if (child == null) {
+                continue;
+            }
+            next[0] = depth + 1;
+            for (int i = 1; i <= m; i++) {
+                int replace = row[i - 1]
+                        + (pref.charAt(i - 1) == child.value ? 0 : 1);
+                next[i] = Math.min(replace,
+                        Math.min(row[i], next[i - 1]) + 1);
+            }
+            word.append(child.value);
+            match(child, word, pref, rows, depth + 1, best, maxEdits,
+                    matches);
+            word.setLength(word.length() - 1);
+        }
+    }
+
+    /**
+     * Adds words of the subtree of node to result in alphabetical order,
+     * skipping subtrees of closer matches, whose words are already there.
+     */
+    private void collect(Node node, StringBuilder word, int distance,
+                         Map<Node, Integer> distances, int k,
+                         List<String> result) {
+        if (node.weight != -1 && node != root) {
+            result.add(word.toString());
+        }
+        for (int i = 0; i < R && result.size() < k; i++) {
+            Node child = node.next[i];
+            if (child == null) {
+                continue;
+            }
+            Integer closer = distances.get(child);
+            if (closer != null && closer < distance) {
+                continue;
+            }
+            word.append(child.value);
+            collect(child, word, distance, distances, k, result);
+            word.setLength(word.length() - 1);
+        }
+    }
+
+    /**
+     * Node of fuzzyWordsWithPrefix(), whose path is within the distance
+     * from the prefix.
+     */
+    private static class Match implements Comparable<Match> {
+        private Node node;
+        private String word;
+        private int distance;
+
+        public Match(Node node, String word, int distance) {
+            this.node = node;
+            this.word = word;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            if (distance != other.distance) {
+                return Integer.compare(distance, other.distance);
+            }
+            return word.compareTo(other.word);
+        }
+    }
+
+    /**
+     * Returns at most k words, which start with pref, with the highest
+     * weights; words with equal weights go in alphabetical order.
+     *
+     * <p>Best-first search: the queue holds subtrees ranked by their max
+     * weight and words ranked by their weight, so a word leaves the queue
+     * only when nothing left can outrank it. Subtrees whose max is below
+     * the k-th result are never expanded.
+     *
+     * @param pref prefix of each returned word.
+     * @param k    max count of returned words.
+     * @return words sorted by weight, from the highest.
+     */
+    public List<String> topK(String pref, int k) {
+        List<String> result = new ArrayList<>();
+        Node tempNode = find(pref);
+        if (tempNode == null || k <= 0) {
+            return result;
+        }
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(tempNode, pref, tempNode.max));
+        while (!queue.isEmpty() && result.size() < k) {
+            Candidate candidate = queue.remove();
+            Node node = candidate.node;
+            if (node == null) {
+                result.add(candidate.word);
+                continue;
+            }
+            if (node.weight != -1 && node != root) {
+                queue.add(new Candidate(null, candidate.word, node.weight));
+            }
+            for (Node child : node.next) {
+                if (child != null && child.max != -1) {
+                    queue.add(new Candidate(child,
+                            candidate.word + child.value, child.max));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Entry of the topK() queue: a subtree ranked by its max weight, or a
+     * word (node is null) ranked by its weight.
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        private Node node;
+        private String word;
+        private int weight;
+
+        public Candidate(Node node, String word, int weight) {
+            this.node = node;
+            this.word = word;
+            this.weight = weight;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (weight != other.weight) {
+                return Integer.compare(other.weight, weight);
+            }
+            int order = word.compareTo(other.word);
+            if (order != 0) {
+                return order;
+            }
+            return Boolean.compare(node != null, other.node != null);
+        }
+    }
+
+    /**
+     * Answers wordsWithPrefix(prefs[i], maxDepths[i]) for every i at once,
+     * in the same order as one by one.
+     *
+     * <p>All queries share one depth-first walk from the root: nodes on the
+     * paths of the prefixes are visited once however many prefixes share
+     * them, and a subtree under overlapping prefixes, like "pro" and
+     * "prog", is walked once for all of them, with each word built once.
+     *
+     * @param prefs     prefix of each query.
+     * @param maxDepths max length of returned words of each query.
+     * @return words of each query, in the order of queries.
+     */
+    public List<List<String>> wordsWithPrefixes(String[] prefs,
+                                                int[] maxDepths) {
+        if (prefs.length != maxDepths.length) {
+            throw new IllegalArgumentException(
+                    "Each prefix must have a max depth");
+        }
+        return new BatchWalk(prefs, maxDepths).run();
+    }
+
+    /**
+     * State of one wordsWithPrefixes() call. Queries are sorted by prefix,
+     * so the queries, whose prefix goes through a node, are a range of
+     * them, narrowed by one letter per level. Queries become active at the
+     * node of their prefix; words go to the active queries, which allow
+     * their length, bucketed by length to keep breadth-first order.
+     */
+    private class BatchWalk {
+        private String[] prefs;
+        private int[] maxDepths;
+        private int[] order;
+        private List<List<List<String>>> levels = new ArrayList<>();
+        private int[] active;
+        private int top;
+        private char[] path = new char[16];
 
-        public RWayTrieIterator() {
+        public BatchWalk(String[] prefs, int[] maxDepths) {
+            this.prefs = prefs;
+            this.maxDepths = maxDepths;
+            active = new int[prefs.length];
+            Integer[] sorted = new Integer[prefs.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = i;
+                levels.add(new ArrayList<>());
+            }
+            Arrays.sort(sorted, (a, b) -> prefs[a].compareTo(prefs[b]));
+            order = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                order[i] = sorted[i];
+            }
+        }
+
+        public List<List<String>> run() {
+            visit(root, 0, -1, 0, order.length);
+            List<List<String>> result = new ArrayList<>();
+            for (List<List<String>> query : levels) {
+                List<String> words = new ArrayList<>();
+                for (List<String> level : query) {
+                    words.addAll(level);
+                }
+                result.add(words);
+            }
+            return result;
+        }
+
+        /**
+         * Visits node at depth; order[from] .. order[to - 1] are queries,
+         * whose prefix starts with the path of node.
+         */
+        private void visit(Node node, int depth, int limit, int from, int to) {
+            int started = 0;
+            while (from < to && prefs[order[from]].length() == depth) {
+                int query = order[from++];
+                if (maxDepths[query] >= depth) {
+                    active[top++] = query;
+                    limit = Math.max(limit, maxDepths[query]);
+                    started++;
+                }
+            }
+            if (node.weight != -1 && node != root) {
+                String word = null;
+                for (int j = 0; j < top; j++) {
+                    int query = active[j];
+                    if (maxDepths[query] < depth) {
+                        continue;
+                    }
+                    if (word == null) {
+                        word = new String(path, 0, depth);
+                    }
+                    List<List<String>> lengths = levels.get(query);
+                    int level = depth - prefs[query].length();
+                    while (lengths.size() <= level) {
+                        lengths.add(new ArrayList<>());
+                    }
+                    lengths.get(level).add(word);
+                }
+            }
+            if (depth >= limit && from == to) { //nothing to look for below
+                top -= started;
+                return;
+            }
+            int next = from;
             for (int i = 0; i < R; i++) {
-                if (root.next[i] != null) {
-                    nodes.add(root.next[i]);
-                    strings.add(root.next[i].value + "");
+                char c = (char) ('a' + i);
+                while (next < to && prefs[order[next]].charAt(depth) < c) {
+                    next++; //prefix with a letter out of the alphabet
+                }
+                int first = next;
+                while (next < to && prefs[order[next]].charAt(depth) == c) {
+                    next++;
+                }
+                Node child = node.next[i];
+                if (child != null && (depth < limit || first < next)) {
+                    if (depth == path.length) {
+                        path = Arrays.copyOf(path, path.length * 2);
+                    }
+                    path[depth] = c;
+                    visit(child, depth + 1, limit, first, next);
+                }
+            }
+            top -= started;
+        }
+    }
+
+    /**
+     * Spliterator over the words of subtrees nodes[from..to) in order,
+     * after the word first, if any. A subtree is walked depth-first with
+     * a stack, children in order of letters.
+     */
+    private class WordSpliterator implements Spliterator<String> {
+        private Node[] nodes;
+        private String[] words;
+        private int from;
+        private int to;
+        private String first;
+        private long remaining;
+        private Node[] stack = new Node[8];
+        private int[] children = new int[8];
+        private char[] path = new char[16];
+        private int base;
+        private int top = -1;
+
+        public WordSpliterator(Node[] nodes, String[] words, int from, int to,
+                               String first) {
+            this.nodes = nodes;
+            this.words = words;
+            this.from = from;
+            this.to = to;
+            this.first = first;
+            remaining = first == null ? 0 : 1;
+            for (int i = from; i < to; i++) {
+                remaining += count(nodes[i]);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            String word = nextWord();
+            if (word == null) {
+                return false;
+            }
+            remaining--;
+            action.accept(word);
+            return true;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            if (top >= 0) { //the walked subtree must stay before the rest
+                return null;
+            }
+            while (to - from == 1 && first == null) { //go deeper
+                expand();
+            }
+            if (to == from) {
+                return null;
+            }
+            long taken = first == null ? 0 : 1;
+            int mid = from;
+            while (mid < to - 1
+                    && taken + count(nodes[mid]) <= remaining / 2) {
+                taken += count(nodes[mid++]);
+            }
+            if (mid == from && (first == null || to - from > 1)) {
+                mid++;
+            }
+            WordSpliterator prefix = new WordSpliterator(nodes, words, from,
+                    mid, first);
+            from = mid;
+            first = null;
+            remaining -= prefix.remaining;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | NONNULL | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super String> getComparator() {
+            return null;
+        }
+
+        private int count(Node node) {
+            return node == root && root.weight != -1 ? node.count - 1
+                    : node.count;
+        }
+
+        /**
+         * Replaces the only subtree by the subtrees of its children, and
+         * its word, if any, becomes the first one.
+         */
+        private void expand() {
+            Node node = nodes[from];
+            String word = words[from];
+            int n = 0;
+            for (int i = 0; i < R; i++) {
+                if (node.next[i] != null) {
+                    n++;
+                }
+            }
+            Node[] childNodes = new Node[n];
+            String[] childWords = new String[n];
+            n = 0;
+            for (int i = 0; i < R; i++) {
+                if (node.next[i] != null) {
+                    childNodes[n] = node.next[i];
+                    childWords[n++] = word + node.next[i].value;
+                }
+            }
+            if (node.weight != -1 && node != root) {
+                first = word;
+            }
+            nodes = childNodes;
+            words = childWords;
+            from = 0;
+            to = n;
+        }
+
+        private String nextWord() {
+            if (first != null) {
+                String word = first;
+                first = null;
+                return word;
+            }
+            while (true) {
+                if (top < 0) { //start the next subtree
+                    if (from == to) {
+                        return null;
+                    }
+                    Node node = nodes[from];
+                    String word = words[from++];
+                    base = word.length();
+                    if (base >= path.length) {
+                        path = Arrays.copyOf(path, base * 2);
+                    }
+                    word.getChars(0, base, path, 0);
+                    top = 0;
+                    stack[0] = node;
+                    children[0] = 0;
+                    if (node.weight != -1 && node != root) {
+                        return word;
+                    }
+                    continue;
+                }
+                Node node = stack[top];
+                int i = children[top];
+                while (i < R && node.next[i] == null) {
+                    i++;
+                }
+                if (i == R) {
+                    top--;
+                    continue;
+                }
+                children[top] = i + 1;
+                Node child = node.next[i];
+                if (top + 1 == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    children = Arrays.copyOf(children, children.length * 2);
+                }
+                if (base + top == path.length) {
+                    path = Arrays.copyOf(path, path.length * 2);
+                }
+                path[base + top] = child.value;
+                top++;
+                stack[top] = child;
+                children[top] = 0;
+                if (child.weight != -1) {
+                    return new String(path, 0, base + top);
                 }
             }
         }
+    }
+
+    private class RWayTrieIterator implements Iterator<String> {
+        private Queue<Node> nodes = new LinkedList<>();
+        private Queue<String> strings = new LinkedList<>();
+        private String nextWord;
 
         public RWayTrieIterator(String pref) {
-            boolean flag = false;
-            strings.add(pref);
             Node tempNode = root;
-            for (int i = 0; i < pref.length(); i++) {
-                if (tempNode.next[pref.charAt(i) - 'a'] == null) {
-                    flag = true;
-                    break;
-                }
+            for (int i = 0; i < pref.length() && tempNode != null; i++) {
                 tempNode = tempNode.next[pref.charAt(i) - 'a'];
             }
-            if (!flag) {
+            if (tempNode != null) {
                 nodes.add(tempNode);
+                strings.add(pref);
             }
+            nextWord = getNextWord();
         }
 
         @Override
         public boolean hasNext() {
-            return !nodes.isEmpty();
+            return nextWord != null;
         }
 
         @Override
-        public T next() {
-            return (T) getNextWord();
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
         }
 
         private String getNextWord() {
-            String tempString = null;
-            Node tempNode;
             while (!nodes.isEmpty()) {
-                tempNode = nodes.remove();
-                tempString = strings.remove();
+                Node tempNode = nodes.remove();
+                String tempString = strings.remove();
                 for (int i = 0; i < R; i++) {
                     if (tempNode.next[i] != null) {
                         nodes.add(tempNode.next[i]);
                         strings.add(tempString + tempNode.next[i].value);
                     }
                 }
-                if (tempNode.weight != -1) {
-                    break;
+                if (tempNode.weight != -1 && tempNode != root) {
+                    return tempString;
+                }
+            }
+            return null;
+        }
+    }
+
+    private class DepthFirstIterator implements Iterator<String> {
+        private Node[] nodes;
+        private int[] children;
+        private char[] path;
+        private int base;
+        private int maxDepth;
+        private int targetDepth;
+        private int top;
+        private boolean reached;
+        private String nextWord;
+        private IntConsumer visits;
+        private int visited;
+
+        public DepthFirstIterator(String pref, int maxDepth,
+                                  IntConsumer visits) {
+            this.maxDepth = maxDepth;
+            this.visits = visits;
+            Node tempNode = root;
+            for (int i = 0; i < pref.length() && tempNode != null; i++) {
+                tempNode = tempNode.next[pref.charAt(i) - 'a'];
+            }
+            base = pref.length();
+            path = new char[base + 1];
+            pref.getChars(0, base, path, 0);
+            nodes = new Node[1];
+            children = new int[1];
+            nodes[0] = tempNode;
+            targetDepth = base;
+            top = tempNode != null && base <= maxDepth ? 0 : -1;
+            visited = base;
+            nextWord = getNextWord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (true) {
+                if (top < 0) { //pass is over, start the next level if any
+                    if (!reached || targetDepth >= maxDepth) {
+                        if (visits != null) {
+                            visits.accept(visited);
+                            visits = null;
+                        }
+                        return null;
+                    }
+                    targetDepth++;
+                    reached = false;
+                    children[0] = 0;
+                    top = 0;
+                    continue;
                 }
+                Node node = nodes[top];
+                int depth = base + top;
+                if (depth == targetDepth) {
+                    top--;
+                    reached = true;
+                    if (node.weight != -1 && node != root) {
+                        return new String(path, 0, depth);
+                    }
+                    continue;
+                }
+                int i = children[top];
+                while (i < R && node.next[i] == null) {
+                    i++;
+                }
+                if (i == R) {
+                    top--;
+                    continue;
+                }
+                children[top] = i + 1;
+                push(node.next[i], depth);
+            }
+        }
+
+        private void push(Node node, int depth) {
+            if (top + 1 == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                children = Arrays.copyOf(children, children.length * 2);
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            path[depth] = node.value;
+            top++;
+            visited++;
+            nodes[top] = node;
+            children[top] = 0;
+        }
+    }
+
+    /**
+     * Writes rWayTrie to out as a binary snapshot, see TrieFormat. The
+     * stream is flushed, but not closed.
+     *
+     * @param out stream for the snapshot.
+     * @throws IOException if the snapshot can not be written.
+     */
+    public void save(OutputStream out) throws IOException {
+        format().write(out);
+    }
+
+    /**
+     * Packs the nodes in breadth-first order into the arrays of a snapshot.
+     */
+    TrieFormat format() {
+        List<Node> order = new ArrayList<>();
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) {
+            for (Node child : order.get(i).next) {
+                if (child != null) {
+                    order.add(child);
+                }
+            }
+        }
+        int n = order.size();
+        char[] labels = new char[n];
+        int[] weights = new int[n];
+        int[] firstChild = new int[n + 1];
+        int next = 1;
+        for (int i = 0; i < n; i++) {
+            Node node = order.get(i);
+            labels[i] = node.value;
+            weights[i] = node.weight;
+            firstChild[i] = next;
+            for (Node child : node.next) {
+                if (child != null) {
+                    next++;
+                }
+            }
+        }
+        firstChild[n] = next;
+        return new TrieFormat(labels, weights, firstChild, size);
+    }
+
+    /**
+     * Writes rWayTrie to the file as a binary snapshot.
+     *
+     * @param path file for the snapshot.
+     * @throws IOException if the snapshot can not be written.
+     */
+    public void save(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            save(out);
+        }
+    }
+
+    /**
+     * Reads rWayTrie from a binary snapshot written by save().
+     *
+     * @param path file with the snapshot.
+     * @return the restored rWayTrie.
+     * @throws IOException if the file can not be read or is not a snapshot.
+     */
+    public static RWayTrie load(Path path) throws IOException {
+        TrieFormat format = TrieFormat.read(path);
+        int n = format.labels.length;
+        RWayTrie trie = new RWayTrie();
+        Node[] nodes = new Node[n];
+        nodes[0] = trie.root;
+        for (int i = 1; i < n; i++) {
+            if (format.labels[i] < 'a' || format.labels[i] > 'z') {
+                throw new IOException("Bad label of node " + i
+                        + " in trie snapshot");
+            }
+            nodes[i] = new Node();
+            nodes[i].value = format.labels[i];
+        }
+        for (int i = n - 1; i >= 0; i--) { //children are after parents
+            nodes[i].weight = format.weights[i];
+            nodes[i].max = format.weights[i];
+            nodes[i].count = format.weights[i] == -1 ? 0 : 1;
+            for (int c = format.firstChild[i]; c < format.firstChild[i + 1];
+                 c++) {
+                nodes[i].next[nodes[c].value - 'a'] = nodes[c];
+                nodes[i].max = Math.max(nodes[i].max, nodes[c].max);
+                nodes[i].count += nodes[c].count;
             }
-            return tempString;
         }
+        trie.size = format.size;
+        return trie;
     }
 
     /**
@@ -0,0 +1,345 @@
+package com.prefixmatches.trie;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ *  Compressed (radix, Patricia) implementation of the (@code Trie).
+ *  Chains of single-child nodes are collapsed into one node, whose edge
+ *  label holds the whole chain, and children are kept in sorted arrays of
+ *  exactly the needed size.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class RadixTrie implements Trie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private Node root;
+    private int size;
+
+    private static class Node {
+        private char[] label;
+        private int weight;
+        private Node[] next;
+
+        public Node(char[] label) {
+            this.label = label;
+            weight = -1;
+            next = NO_CHILDREN;
+        }
+    }
+
+    private static class Entry {
+        private Node node;
+        private String word;
+
+        public Entry(Node node, String word) {
+            this.node = node;
+            this.word = word;
+        }
+    }
+
+    /**
+     * Constructs an empty radixTrie.
+     */
+    public RadixTrie() {
+        root = new Node(new char[0]);
+        size = 0;
+    }
+
+    /**
+     * Adds to radixTrie a tuple.
+     *
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
+     */
+    public void add(Tuple tuple) {
+        String word = tuple.getTerm();
+        Node temp = root;
+        int i = 0;
+        while (i < word.length()) {
+            int pos = find(temp, word.charAt(i));
+            if (pos < 0) { //no edge starts with this char, add a leaf
+                Node leaf = new Node(word.substring(i).toCharArray());
+                insert(temp, -pos - 1, leaf);
+                temp = leaf;
+                break;
+            }
+            Node child = temp.next[pos];
+            int common = commonLength(child.label, word, i);
+            if (common < child.label.length) { //split the edge
+                Node middle = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common,
+                        child.label.length);
+                middle.next = new Node[]{child};
+                temp.next[pos] = middle;
+                child = middle;
+            }
+            temp = child;
+            i += common;
+        }
+        if (temp.weight == -1) {
+            size++;
+        }
+        temp.weight = tuple.getWeight();
+    }
+
+    /**
+     * Determines whether there is a word in the radixTrie.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        Node temp = root;
+        int i = 0;
+        while (i < word.length()) {
+            int pos = find(temp, word.charAt(i));
+            if (pos < 0) {
+                return false;
+            }
+            temp = temp.next[pos];
+            if (commonLength(temp.label, word, i) != temp.label.length) {
+                return false;
+            }
+            i += temp.label.length;
+        }
+        return temp.weight != -1;
+    }
+
+    /**
+     * Returns the score(weight) of word in the radixTrie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        Node temp = root;
+        int i = 0;
+        while (i < word.length()) {
+            int pos = find(temp, word.charAt(i));
+            if (pos < 0) {
+                return -1;
+            }
+            temp = temp.next[pos];
+            if (commonLength(temp.label, word, i) != temp.label.length) {
+                return -1;
+            }
+            i += temp.label.length;
+        }
+        return temp.weight;
+    }
+
+    /**
+     * Deletes word from the radixTrie. Emptied leaves are removed and their
+     * parents are merged back into single edges.
+     *
+     * @param word to delete from the trie.
+     * @return true if a word has been removed from trie, false - else.
+     */
+    public boolean delete(String word) {
+        LinkedList<Node> stack = new LinkedList<>();
+        Node temp = root;
+        int i = 0;
+        while (i < word.length()) {
+            int pos = find(temp, word.charAt(i));
+            if (pos < 0) {
+                return false;
+            }
+            stack.addFirst(temp);
+            temp = temp.next[pos];
+            if (commonLength(temp.label, word, i) != temp.label.length) {
+                return false;
+            }
+            i += temp.label.length;
+        }
+        if (temp.weight == -1) {
+            return false;
+        }
+        temp.weight = -1;
+        size--;
+        if (temp == root) {
+            return true;
+        }
+        Node parent = stack.pop();
+        if (temp.next.length == 0) {
+            remove(parent, find(parent, temp.label[0]));
+            if (parent != root) {
+                merge(stack.pop(), parent);
+            }
+        } else {
+            merge(parent, temp);
+        }
+        return true;
+    }
+
+    /**
+     * Iterator for all words, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> new RadixTrieIterator("", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new RadixTrieIterator(pref, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new RadixTrieIterator(pref, maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int find(Node node, char c) {
+        int low = 0;
+        int high = node.next.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = node.next[mid].label[0];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonLength(char[] label, String word, int from) {
+        int max = Math.min(label.length, word.length() - from);
+        int i = 0;
+        while (i < max && label[i] == word.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void insert(Node node, int pos, Node child) {
+        Node[] next = new Node[node.next.length + 1];
+        System.arraycopy(node.next, 0, next, 0, pos);
+        System.arraycopy(node.next, pos, next, pos + 1,
+                node.next.length - pos);
+        next[pos] = child;
+        node.next = next;
+    }
+
+    private static void remove(Node node, int pos) {
+        if (node.next.length == 1) {
+            node.next = NO_CHILDREN;
+            return;
+        }
+        Node[] next = new Node[node.next.length - 1];
+        System.arraycopy(node.next, 0, next, 0, pos);
+        System.arraycopy(node.next, pos + 1, next, pos, next.length - pos);
+        node.next = next;
+    }
+
+    /**
+     * Collapses node into its only child, if node is not a word.
+     */
+    private static void merge(Node parent, Node node) {
+        if (node.weight != -1 || node.next.length != 1) {
+            return;
+        }
+        Node child = node.next[0];
+        char[] label = new char[node.label.length + child.label.length];
+        System.arraycopy(node.label, 0, label, 0, node.label.length);
+        System.arraycopy(child.label, 0, label, node.label.length,
+                child.label.length);
+        child.label = label;
+        parent.next[find(parent, label[0])] = child;
+    }
+
+    private class RadixTrieIterator implements Iterator<String> {
+        private PriorityQueue<Entry> entries = new PriorityQueue<>(
+                Comparator.comparingInt((Entry e) -> e.word.length())
+                        .thenComparing(e -> e.word));
+        private int maxDepth;
+        private String nextWord;
+
+        public RadixTrieIterator(String pref, int maxDepth) {
+            this.maxDepth = maxDepth;
+            Node temp = root;
+            String word = "";
+            int i = 0;
+            while (temp != null && i < pref.length()) {
+                int pos = find(temp, pref.charAt(i));
+                if (pos < 0) {
+                    temp = null;
+                    break;
+                }
+                temp = temp.next[pos];
+                int common = commonLength(temp.label, pref, i);
+                if (common < temp.label.length
+                        && i + common < pref.length()) {
+                    temp = null;
+                    break;
+                }
+                word = pref.substring(0, i) + new String(temp.label);
+                i += temp.label.length;
+            }
+            if (temp != null && word.length() <= maxDepth) {
+                entries.add(new Entry(temp, word));
+            }
+            nextWord = getNextWord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (!entries.isEmpty()) {
+                Entry entry = entries.remove();
+                for (Node child : entry.node.next) {
+                    if (entry.word.length() + child.label.length <= maxDepth) {
+                        entries.add(new Entry(child,
+                                entry.word + new String(child.label)));
+                    }
+                }
+                if (entry.node.weight != -1 && entry.node != root) {
+                    return entry.word;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.prefixmatches.trie;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ *  Implementation of the (@code Trie) for words of any alphabet: latin,
+ *  cyrillic, accented or any other letters, and upper case. A node keeps
+ *  the letters of its children in a sorted array of exactly the needed
+ *  size and finds a child by binary search, so it does not depend on the
+ *  size of the alphabet and takes less memory than a node of rWayTrie,
+ *  which always keeps 26 links. Letters are chars: a code point outside of
+ *  the basic plane takes two nodes, and words go in the order of chars.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class SparseTrie implements Trie {
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private Node root;
+    private int size;
+
+    private static class Node {
+        private int weight;
+        private char[] labels;
+        private Node[] next;
+
+        public Node() {
+            weight = -1;
+            labels = NO_LABELS;
+            next = NO_CHILDREN;
+        }
+    }
+
+    /**
+     * Constructs an empty sparseTrie.
+     */
+    public SparseTrie() {
+        root = new Node();
+        size = 0;
+    }
+
+    /**
+     * Adds to sparseTrie a tuple.
+     *
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
+     */
+    public void add(Tuple tuple) {
+        String word = tuple.getTerm();
+        Node temp = root;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            int pos = find(temp, c);
+            if (pos < 0) {
+                pos = -pos - 1;
+                insert(temp, pos, c, new Node());
+            }
+            temp = temp.next[pos];
+        }
+        if (temp.weight == -1) {
+            size++;
+        }
+        temp.weight = tuple.getWeight();
+    }
+
+    /**
+     * Determines whether there is a word in the sparseTrie.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        Node temp = find(word);
+        return temp != null && temp.weight != -1;
+    }
+
+    /**
+     * Returns the score(weight) of word in the sparseTrie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        Node temp = find(word);
+        return temp == null ? -1 : temp.weight;
+    }
+
+    /**
+     * Deletes word from the sparseTrie. Nodes, which are left without words
+     * below them, are removed.
+     *
+     * @param word to delete from the trie.
+     * @return true if a word has been removed from trie, false - else.
+     */
+    public boolean delete(String word) {
+        Node[] path = new Node[word.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < word.length(); i++) {
+            int pos = find(path[i], word.charAt(i));
+            if (pos < 0) {
+                return false;
+            }
+            path[i + 1] = path[i].next[pos];
+        }
+        Node temp = path[word.length()];
+        if (temp.weight == -1) {
+            return false;
+        }
+        temp.weight = -1;
+        size--;
+        for (int i = word.length(); i > 0; i--) {
+            if (path[i].weight != -1 || path[i].next.length > 0) {
+                break;
+            }
+            remove(path[i - 1], find(path[i - 1], word.charAt(i - 1)));
+        }
+        return true;
+    }
+
+    /**
+     * Iterator for all words, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> new SparseTrieIterator("", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new SparseTrieIterator(pref, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new SparseTrieIterator(pref, maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    private Node find(String pref) {
+        Node temp = root;
+        for (int i = 0; i < pref.length(); i++) {
+            int pos = find(temp, pref.charAt(i));
+            if (pos < 0) {
+                return null;
+            }
+            temp = temp.next[pos];
+        }
+        return temp;
+    }
+
+    private static int find(Node node, char c) {
+        char[] labels = node.labels;
+        int low = 0;
+        int high = labels.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < c) {
+                low = mid + 1;
+            } else if (labels[mid] > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void insert(Node node, int pos, char c, Node child) {
+        int length = node.labels.length;
+        char[] labels = new char[length + 1];
+        Node[] next = new Node[length + 1];
+        System.arraycopy(node.labels, 0, labels, 0, pos);
+        System.arraycopy(node.next, 0, next, 0, pos);
+        System.arraycopy(node.labels, pos, labels, pos + 1, length - pos);
+        System.arraycopy(node.next, pos, next, pos + 1, length - pos);
+        labels[pos] = c;
+        next[pos] = child;
+        node.labels = labels;
+        node.next = next;
+    }
+
+    private static void remove(Node node, int pos) {
+        int length = node.labels.length - 1;
+        if (length == 0) {
+            node.labels = NO_LABELS;
+            node.next = NO_CHILDREN;
+            return;
+        }
+        char[] labels = new char[length];
+        Node[] next = new Node[length];
+        System.arraycopy(node.labels, 0, labels, 0, pos);
+        System.arraycopy(node.next, 0, next, 0, pos);
+        System.arraycopy(node.labels, pos + 1, labels, pos, length - pos);
+        System.arraycopy(node.next, pos + 1, next, pos, length - pos);
+        node.labels = labels;
+        node.next = next;
+    }
+
+    private class SparseTrieIterator implements Iterator<String> {
+        private Queue<Node> nodes = new LinkedList<>();
+        private Queue<String> strings = new LinkedList<>();
+        private int maxDepth;
+        private String nextWord;
+
+        public SparseTrieIterator(String pref, int maxDepth) {
+            this.maxDepth = maxDepth;
+            Node tempNode = find(pref);
+            if (tempNode != null && pref.length() <= maxDepth) {
+                nodes.add(tempNode);
+                strings.add(pref);
+            }
+            nextWord = getNextWord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextWord == null) {
+                throw new NoSuchElementException();
+            }
+            String word = nextWord;
+            nextWord = getNextWord();
+            return word;
+        }
+
+        private String getNextWord() {
+            while (!nodes.isEmpty()) {
+                Node tempNode = nodes.remove();
+                String tempString = strings.remove();
+                if (tempString.length() < maxDepth) {
+                    for (int i = 0; i < tempNode.next.length; i++) {
+                        nodes.add(tempNode.next[i]);
+                        strings.add(tempString + tempNode.labels[i]);
+                    }
+                }
+                if (tempNode.weight != -1 && tempNode != root) {
+                    return tempString;
+                }
+            }
+            return null;
+        }
+    }
+}
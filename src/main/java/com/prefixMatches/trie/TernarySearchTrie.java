@@ -0,0 +1,316 @@
+package com.prefixmatches.trie;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ *  Ternary search tree implementation of the (@code Trie). Each node keeps
+ *  only three links - to smaller, equal and greater characters - so sparse
+ *  levels do not pay for empty child slots.
+ *
+ *  @author Denys Storozhenko
+ *  @see Trie
+ */
+public class TernarySearchTrie implements Trie {
+    private Node root;
+    private int emptyWeight;
+    private int size;
+
+    private static class Node {
+        private char value;
+        private int weight;
+        private Node lo;
+        private Node eq;
+        private Node hi;
+
+        public Node(char value) {
+            this.value = value;
+            weight = -1;
+        }
+    }
+
+    /**
+     * Constructs an empty ternarySearchTrie.
+     */
+    public TernarySearchTrie() {
+        emptyWeight = -1;
+        size = 0;
+    }
+
+    /**
+     * Adds to ternarySearchTrie a tuple.
+     *
+     * @param tuple consists from 2 elements - word(term) and his score(weight)
+     */
+    public void add(Tuple tuple) {
+        String word = tuple.getTerm();
+        if (word.isEmpty()) {
+            if (emptyWeight == -1) {
+                size++;
+            }
+            emptyWeight = tuple.getWeight();
+            return;
+        }
+        if (root == null) {
+            root = new Node(word.charAt(0));
+        }
+        Node temp = root;
+        int i = 0;
+        while (true) {
+            char c = word.charAt(i);
+            if (c < temp.value) {
+                if (temp.lo == null) {
+                    temp.lo = new Node(c);
+                }
+                temp = temp.lo;
+            } else if (c > temp.value) {
+                if (temp.hi == null) {
+                    temp.hi = new Node(c);
+                }
+                temp = temp.hi;
+            } else if (++i < word.length()) {
+                if (temp.eq == null) {
+                    temp.eq = new Node(word.charAt(i));
+                }
+                temp = temp.eq;
+            } else {
+                break;
+            }
+        }
+        if (temp.weight == -1) {
+            size++;
+        }
+        temp.weight = tuple.getWeight();
+    }
+
+    /**
+     * Determines whether there is a word in the ternarySearchTrie.
+     *
+     * @param word to verify the presence in trie.
+     * @return true if a word is in the trie, false - else.
+     */
+    public boolean contains(String word) {
+        if (word.isEmpty()) {
+            return emptyWeight != -1;
+        }
+        Node temp = find(word);
+        return temp != null && temp.weight != -1;
+    }
+
+    /**
+     * Returns the score(weight) of word in the ternarySearchTrie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    public int weight(String word) {
+        if (word.isEmpty()) {
+            return emptyWeight;
+        }
+        Node temp = find(word);
+        return temp == null ? -1 : temp.weight;
+    }
+
+    /**
+     * Deletes word from the ternarySearchTrie. Nodes, which are left without
+     * words below them, are unlinked where it does not need rebalancing.
+     *
+     * @param word to delete from the trie.
+     * @return true if a word has been removed from trie, false - else.
+     */
+    public boolean delete(String word) {
+        if (word.isEmpty()) {
+            if (emptyWeight == -1) {
+                return false;
+            }
+            emptyWeight = -1;
+            size--;
+            return true;
+        }
+        LinkedList<Node> stack = new LinkedList<>();
+        Node temp = root;
+        int i = 0;
+        while (temp != null) {
+            stack.addFirst(temp);
+            char c = word.charAt(i);
+            if (c < temp.value) {
+                temp = temp.lo;
+            } else if (c > temp.value) {
+                temp = temp.hi;
+            } else if (++i < word.length()) {
+                temp = temp.eq;
+            } else {
+                break;
+            }
+        }
+        if (temp == null || temp.weight == -1) {
+            return false;
+        }
+        temp.weight = -1;
+        size--;
+        while (!stack.isEmpty()) {
+            temp = stack.pop();
+            if (temp.weight != -1 || temp.eq != null) {
+                break;
+            }
+            Node replacement;
+            if (temp.lo == null) {
+                replacement = temp.hi;
+            } else if (temp.hi == null) {
+                replacement = temp.lo;
+            } else {
+                break;
+            }
+            Node parent = stack.peek();
+            if (parent == null) {
+                root = replacement;
+            } else if (parent.lo == temp) {
+                parent.lo = replacement;
+            } else if (parent.hi == temp) {
+                parent.hi = replacement;
+            } else {
+                parent.eq = replacement;
+            }
+            if (replacement != null) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Iterator for all words, breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> words() {
+        return () -> new TernarySearchTrieIterator("", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref breadth-first search.
+     *
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new TernarySearchTrieIterator(pref, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+        return () -> new TernarySearchTrieIterator(pref, maxDepth);
+    }
+
+    /**
+     * Returns the number of elements in trie.
+     *
+     * @return the number of elements in trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the node of the last character of word or null.
+     */
+    private Node find(String word) {
+        Node temp = root;
+        int i = 0;
+        while (temp != null) {
+            char c = word.charAt(i);
+            if (c < temp.value) {
+                temp = temp.lo;
+            } else if (c > temp.value) {
+                temp = temp.hi;
+            } else if (++i < word.length()) {
+                temp = temp.eq;
+            } else {
+                return temp;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Breadth-first iterator. The queue holds, for every reached word
+     * position, the root of the tree of its next characters; each tree is
+     * visited in order, so words come out by length and then alphabetically.
+     */
+    private class TernarySearchTrieIterator implements Iterator<String> {
+        private Queue<Node> nodes = new LinkedList<>();
+        private Queue<String> strings = new LinkedList<>();
+        private Queue<String> ready = new LinkedList<>();
+        private LinkedList<Node> stack = new LinkedList<>();
+        private int maxDepth;
+
+        public TernarySearchTrieIterator(String pref, int maxDepth) {
+            this.maxDepth = maxDepth;
+            if (pref.length() > maxDepth) {
+                return;
+            }
+            if (pref.isEmpty()) {
+                if (root != null && maxDepth > 0) {
+                    nodes.add(root);
+                    strings.add(pref);
+                }
+                return;
+            }
+            Node temp = find(pref);
+            if (temp == null) {
+                return;
+            }
+            if (temp.weight != -1) {
+                ready.add(pref);
+            }
+            if (temp.eq != null && pref.length() < maxDepth) {
+                nodes.add(temp.eq);
+                strings.add(pref);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (ready.isEmpty() && !nodes.isEmpty()) {
+                expand(nodes.remove(), strings.remove());
+            }
+            return !ready.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return ready.remove();
+        }
+
+        private void expand(Node tree, String prefix) {
+            Node temp = tree;
+            while (temp != null || !stack.isEmpty()) {
+                while (temp != null) {
+                    stack.addFirst(temp);
+                    temp = temp.lo;
+                }
+                temp = stack.pop();
+                String word = prefix + temp.value;
+                if (temp.weight != -1) {
+                    ready.add(word);
+                }
+                if (temp.eq != null && word.length() < maxDepth) {
+                    nodes.add(temp.eq);
+                    strings.add(word);
+                }
+                temp = temp.hi;
+            }
+        }
+    }
+}
@@ -1,5 +1,15 @@
 package com.prefixmatches.trie;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Interface contains main methods for working with trie.
  *
@@ -9,7 +19,8 @@ package com.prefixmatches.trie;
 public interface Trie {
 
     /**
-     * Object of this class allows to store a couple.
+     * Object of this class allows to store a couple: a word and its score,
+     * for example frequency or popularity. Higher scores rank first.
      */
     class Tuple {
         private String term;
@@ -19,9 +30,14 @@ public interface Trie {
          * Constructs a tuple from two parameters - term and weight.
          *
          * @param term   - word in tuple.
-         * @param weight - words length.
+         * @param weight - score of the word, not negative.
+         * @throws IllegalArgumentException if weight is negative.
          */
         public Tuple(String term, int weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException(
+                        "Weight must not be negative: " + weight);
+            }
             this.term = term;
             this.weight = weight;
         }
@@ -38,10 +54,21 @@ public interface Trie {
     /**
      * Adds to trie a tuple.
      *
-     * @param tuple consists from two elements - word(term), his length(weight)
+     * @param tuple consists from two elements - word(term), his score(weight)
      */
     void add(Tuple tuple);
 
+    /**
+     * Adds to trie all tuples, as if they were added one by one.
+     *
+     * @param tuples words(terms) with their scores(weights)
+     */
+    default void addAll(Collection<Tuple> tuples) {
+        for (Tuple tuple : tuples) {
+            add(tuple);
+        }
+    }
+
     /**
      * Determines whether there is a word in the trie.
      *
@@ -50,6 +77,14 @@ public interface Trie {
      */
     boolean contains(String word);
 
+    /**
+     * Returns the score(weight) of word in the trie.
+     *
+     * @param word whose weight to return.
+     * @return the weight, or -1 if a word is not in the trie.
+     */
+    int weight(String word);
+
     /**
      * Deletes word from the trie.
      *
@@ -72,6 +107,212 @@ public interface Trie {
      */
     Iterable<String> wordsWithPrefix(String pref);
 
+    /**
+     * Sequential stream of all words, which may be made parallel().
+     *
+     * @return stream of strings.
+     */
+    default Stream<String> wordStream() {
+        return wordStream("");
+    }
+
+    /**
+     * Sequential stream of all words, which start with pref, which may be
+     * made parallel(). By default it is backed by wordsWithPrefix(pref), so
+     * it splits poorly; the trie must not change while it is consumed.
+     *
+     * @param pref prefix of each word of the stream.
+     * @return stream of strings.
+     */
+    default Stream<String> wordStream(String pref) {
+        return StreamSupport.stream(wordsWithPrefix(pref).spliterator(),
+                false);
+    }
+
+    /**
+     * Iterator for all words, which starts with pref and are not longer than
+     * maxDepth, breadth-first search. Nodes deeper than maxDepth are never
+     * visited.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @return iterable of strings.
+     */
+    Iterable<String> wordsWithPrefix(String pref, int maxDepth);
+
+    /**
+     * Iterator for the same words as wordsWithPrefix(pref, maxDepth), which
+     * passes to visits the number of nodes visited, once the words are
+     * exhausted. By default the nodes are not counted and visits is never
+     * called.
+     *
+     * @param pref     prefix of each returned word.
+     * @param maxDepth max length of returned words.
+     * @param visits   receives the number of visited nodes.
+     * @return iterable of strings.
+     */
+    default Iterable<String> wordsWithPrefix(String pref, int maxDepth,
+                                             IntConsumer visits) {
+        return wordsWithPrefix(pref, maxDepth);
+    }
+
+    /**
+     * Answers wordsWithPrefix(prefs[i], maxDepths[i]) for every i at once.
+     * By default the queries are answered one by one.
+     *
+     * @param prefs     prefix of each query.
+     * @param maxDepths max length of returned words of each query.
+     * @return words of each query, in the order of queries.
+     * @throws IllegalArgumentException if the arrays differ in length.
+     */
+    default List<List<String>> wordsWithPrefixes(String[] prefs,
+                                                 int[] maxDepths) {
+        if (prefs.length != maxDepths.length) {
+            throw new IllegalArgumentException(
+                    "Each prefix must have a max depth");
+        }
+        List<List<String>> result = new ArrayList<>();
+        for (int i = 0; i < prefs.length; i++) {
+            List<String> words = new ArrayList<>();
+            for (String word : wordsWithPrefix(prefs[i], maxDepths[i])) {
+                words.add(word);
+            }
+            result.add(words);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of words, which start with pref. By default they
+     * are counted by iterating over them.
+     *
+     * @param pref prefix of counted words.
+     * @return the number of words with the prefix.
+     */
+    default int countWithPrefix(String pref) {
+        int count = 0;
+        for (String word : wordsWithPrefix(pref)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a page of words, which start with pref, in alphabetical
+     * order. By default all such words are collected and sorted.
+     *
+     * @param pref   prefix of each returned word.
+     * @param offset number of words to skip.
+     * @param limit  max count of returned words.
+     * @return words from offset, at most limit.
+     */
+    default List<String> wordsWithPrefix(String pref, int offset,
+                                         int limit) {
+        List<String> words = new ArrayList<>();
+        for (String word : wordsWithPrefix(pref)) {
+            words.add(word);
+        }
+        Collections.sort(words);
+        int from = Math.min(Math.max(offset, 0), words.size());
+        int to = Math.min(from + Math.max(limit, 0), words.size());
+        return new ArrayList<>(words.subList(from, to));
+    }
+
+    /**
+     * Returns at most k words, which start with a string within maxEdits
+     * edits (Levenshtein distance) from pref, in order of increasing
+     * distance; words at the same distance go in alphabetical order. By
+     * default the distance is computed for every word.
+     *
+     * @param pref     mistyped prefix.
+     * @param maxEdits max count of inserted, deleted or replaced letters.
+     * @param k        max count of returned words.
+     * @return words sorted by distance.
+     */
+    default List<String> fuzzyWordsWithPrefix(String pref, int maxEdits,
+                                              int k) {
+        int m = pref.length();
+        List<List<String>> levels = new ArrayList<>();
+        for (int d = 0; d <= maxEdits; d++) {
+            levels.add(new ArrayList<>());
+        }
+        int[] row = new int[m + 1];
+        for (String word : words()) {
+            for (int i = 0; i <= m; i++) {
+                row[i] = i;
+            }
+            int distance = row[m];
+            for (int j = 0; j < word.length(); j++) {
+                int diagonal = row[0];
+                row[0] = j + 1;
+                for (int i = 1; i <= m; i++) {
+                    int replace = diagonal
+                            + (pref.charAt(i - 1) == word.charAt(j) ? 0 : 1);
+                    diagonal = row[i];
+                    row[i] = Math.min(replace,
+                            Math.min(row[i], row[i - 1]) + 1);
+                }
+                distance = Math.min(distance, row[m]);
+            }
+            if (distance <= maxEdits) {
+                levels.get(distance).add(word);
+            }
+        }
+        List<String> result = new ArrayList<>();
+        for (List<String> level : levels) {
+            Collections.sort(level);
+            for (String word : level) {
+                if (result.size() == k) {
+                    return result;
+                }
+                result.add(word);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns at most k words, which start with pref, with the highest
+     * weights; words with equal weights go in alphabetical order.
+     *
+     * <p>The default goes over wordsWithPrefix(pref) and keeps the best k
+     * words in a heap, whose head is the worst of them, looking up the
+     * weight of every word; rWayTrie skips subtrees, which can not outrank
+     * the k-th word, instead.
+     *
+     * @param pref prefix of each returned word.
+     * @param k    max count of returned words.
+     * @return words sorted by weight, from the highest.
+     * @throws UnsupportedOperationException if the trie keeps no weights.
+     */
+    default List<String> topK(String pref, int k) {
+        Comparator<Tuple> order = Comparator.comparingInt(Tuple::getWeight)
+                .reversed().thenComparing(Tuple::getTerm);
+        PriorityQueue<Tuple> best = new PriorityQueue<>(order.reversed());
+        if (k > 0) {
+            for (String word : wordsWithPrefix(pref)) {
+                int weight = weight(word);
+                if (weight == -1) { //deleted meanwhile
+                    continue;
+                }
+                Tuple tuple = new Tuple(word, weight);
+                if (best.size() < k) {
+                    best.add(tuple);
+                } else if (order.compare(tuple, best.peek()) < 0) {
+                    best.poll();
+                    best.add(tuple);
+                }
+            }
+        }
+        List<Tuple> sorted = new ArrayList<>(best);
+        sorted.sort(order);
+        List<String> result = new ArrayList<>(sorted.size());
+        for (Tuple tuple : sorted) {
+            result.add(tuple.getTerm());
+        }
+        return result;
+    }
+
     /**
      * Returns the number of elements in trie.
      *
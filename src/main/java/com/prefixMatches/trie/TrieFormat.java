@@ -0,0 +1,165 @@
+package com.prefixmatches.trie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Binary snapshot of a trie. Nodes are numbered in breadth-first order with
+ * children sorted by letter, the root is node 0. The file is big-endian:
+ * a header of four ints - magic, format version, node count n and word
+ * count - then n + 1 ints of first child ids (children of node i are
+ * firstChild[i] .. firstChild[i + 1] - 1), n ints of weights (-1 for nodes
+ * without a word) and n chars of labels.
+ *
+ * @author Denys Storozhenko
+ */
+final class TrieFormat {
+    static final int MAGIC = 0x504D5452;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    char[] labels;
+    int[] weights;
+    int[] firstChild;
+    int size;
+
+    TrieFormat(char[] labels, int[] weights, int[] firstChild, int size) {
+        this.labels = labels;
+        this.weights = weights;
+        this.firstChild = firstChild;
+        this.size = size;
+    }
+
+    /**
+     * Returns offset of the weights section in a file with n nodes.
+     */
+    static long weightsOffset(int n) {
+        return HEADER_SIZE + 4L * (n + 1);
+    }
+
+    /**
+     * Returns offset of the labels section in a file with n nodes.
+     */
+    static long labelsOffset(int n) {
+        return weightsOffset(n) + 4L * n;
+    }
+
+    /**
+     * Checks the header of a file of length bytes and returns the node
+     * count, which is at least 1 (the root) and fits into the file, so that
+     * a corrupt count can not make readers allocate a negative or huge
+     * array.
+     */
+    static int checkHeader(ByteBuffer header, long length)
+            throws IOException {
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a trie snapshot");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported trie snapshot version "
+                    + header.getInt(4));
+        }
+        int n = header.getInt(8);
+        if (n < 1) {
+            throw new IOException("Bad node count " + n
+                    + " in trie snapshot");
+        }
+        if (labelsOffset(n) + 2L * n > length) {
+            throw new IOException("Trie snapshot is truncated");
+        }
+        return n;
+    }
+
+    /**
+     * Checks, that the n nodes form a tree, which readers can follow
+     * without leaving the arrays: children of every node come after it and
+     * before the children of the next node, weights are -1 or not negative
+     * and the word count is between 0 and n.
+     */
+    static void checkNodes(IntUnaryOperator firstChild,
+                           IntUnaryOperator weights, int n, int size)
+            throws IOException {
+        if (size < 0 || size > n) {
+            throw new IOException("Bad word count " + size
+                    + " in trie snapshot");
+        }
+        if (firstChild.applyAsInt(n) != n) {
+            throw new IOException("Bad first child of node " + n
+                    + " in trie snapshot");
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int first = firstChild.applyAsInt(i);
+            if (first <= i || first > firstChild.applyAsInt(i + 1)) {
+                throw new IOException("Bad first child of node " + i
+                        + " in trie snapshot");
+            }
+            if (weights.applyAsInt(i) < -1) {
+                throw new IOException("Bad weight of node " + i
+                        + " in trie snapshot");
+            }
+        }
+    }
+
+    void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(
+                new BufferedOutputStream(out));
+        int n = labels.length;
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(n);
+        data.writeInt(size);
+        for (int i = 0; i <= n; i++) {
+            data.writeInt(firstChild[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            data.writeInt(weights[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            data.writeChar(labels[i]);
+        }
+        data.flush();
+    }
+
+    static TrieFormat read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header);
+            int n = checkHeader(header, channel.size());
+            int size = header.getInt(12);
+            long bodySize = labelsOffset(n) + 2L * n - HEADER_SIZE;
+            if (bodySize > Integer.MAX_VALUE) {
+                throw new IOException("Trie snapshot is too large to read");
+            }
+            ByteBuffer body = ByteBuffer.allocate((int) bodySize);
+            readFully(channel, body);
+            int[] firstChild = new int[n + 1];
+            int[] weights = new int[n];
+            char[] labels = new char[n];
+            body.asIntBuffer().get(firstChild);
+            body.position(4 * (n + 1));
+            body.asIntBuffer().get(weights);
+            body.position(4 * (2 * n + 1));
+            body.asCharBuffer().get(labels);
+            checkNodes(i -> firstChild[i], i -> weights[i], n, size);
+            return new TrieFormat(labels, weights, firstChild, size);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Trie snapshot is truncated");
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,65 @@
+package com.prefixmatches;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedFileLoaderTest {
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("words", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void parseSameAsParserForAnyChunkSize() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            builder.append(i % 7 == 0 ? "w0rd" : "word" + (char) ('a' + i % 26))
+                    .append(i % 5 == 0 ? "\r\n" : "  ");
+        }
+        builder.append("cafe caf\u00e9 last");
+        String text = builder.toString();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        List<String> expected = new ArrayList<>();
+        Parser.parse(new StringReader(text), expected::add);
+        for (int chunkSize : new int[]{1, 7, 1000, 1 << 20}) {
+            List<String> actual = new ArrayList<>();
+            int count = new MappedFileLoader(file, chunkSize)
+                    .parse(actual::add);
+            assertEquals(expected.size(), count);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void loadToPrefixMatches() throws IOException {
+        Files.write(file, "abcd weqis\nweqosx skqm".getBytes(
+                StandardCharsets.US_ASCII));
+        PrefixMatches prefixMatches = new PrefixMatches(
+                new com.prefixmatches.trie.RWayTrie());
+        assertEquals(4, prefixMatches.load(new MappedFileLoader(file)));
+        assertEquals(true, prefixMatches.contains("weqosx"));
+    }
+
+    @Test
+    public void parseEmptyFile() throws IOException {
+        assertEquals(0, new MappedFileLoader(file).parse(word -> { }));
+    }
+}
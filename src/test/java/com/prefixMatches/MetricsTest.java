@@ -0,0 +1,120 @@
+package com.prefixmatches;
+
+import com.prefixmatches.trie.RWayTrie;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+    private Metrics metrics;
+    private PrefixMatches prefixMatches;
+
+    @Before
+    public void setUp() {
+        metrics = new Metrics(1);
+        prefixMatches = new PrefixMatches(new RWayTrie(), null, metrics);
+        prefixMatches.add("abcd weqis weqosx skqm weqiox");
+    }
+
+    @Test
+    public void histogramPercentilesWithinBucket() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000000, snapshot.getMax());
+        assertEquals(500500, snapshot.getMean(), 0.001);
+        assertTrue(snapshot.getP50() >= 500000);
+        assertTrue(snapshot.getP50() <= 500000 * 1.125);
+        assertTrue(snapshot.getP99() >= 990000);
+        assertEquals(1000000, snapshot.valueAt(100));
+    }
+
+    @Test
+    public void histogramBucketsCoverAllValues() {
+        for (long value : new long[]{0, 7, 8, 9, 1023, 1024,
+                Long.MAX_VALUE}) {
+            int bucket = Histogram.bucket(value);
+            assertTrue(value <= Histogram.highest(bucket));
+            assertTrue(bucket == 0 || value > Histogram.highest(bucket - 1));
+        }
+    }
+
+    @Test
+    public void sampledCallsCountAsPeriod() {
+        metrics = new Metrics(4);
+        prefixMatches = new PrefixMatches(new RWayTrie(), null, metrics);
+        for (int i = 0; i < 4000; i++) {
+            prefixMatches.contains("abcd");
+        }
+        long count = metrics.snapshot().getContains().getCount();
+        assertEquals(0, count % 4);
+        assertTrue(count > 3000 && count < 5000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroPeriodShouldRiseException() {
+        new Metrics(0);
+    }
+
+    @Test
+    public void callsAreRecorded() {
+        prefixMatches.contains("abcd");
+        prefixMatches.contains("abce");
+        prefixMatches.delete("skqm");
+        Metrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getAdd().getCount());
+        assertEquals(2, snapshot.getContains().getCount());
+        assertEquals(1, snapshot.getDelete().getCount());
+    }
+
+    @Test
+    public void queryCountsNodesAndWords() {
+        int count = 0;
+        for (String word : prefixMatches.wordsWithPrefix("we", 5)) {
+            count++;
+        }
+        Metrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(3, count);
+        assertEquals(1, snapshot.getWordsWithPrefix().getCount());
+        assertEquals(3, snapshot.getWordsReturned());
+        assertEquals(1, snapshot.getNodesVisited().getCount());
+        assertEquals(snapshot.getNodesVisited().getMax() - 3,
+                snapshot.getNodesDiscarded());
+    }
+
+    @Test
+    public void cachedQueryIsRecorded() {
+        prefixMatches = new PrefixMatches(new RWayTrie(), new PrefixCache(4),
+                metrics);
+        prefixMatches.add("weqis weqosx");
+        prefixMatches.wordsWithPrefix("we", 5);
+        prefixMatches.wordsWithPrefix("we", 5);
+        Metrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getWordsWithPrefix().getCount());
+        assertEquals(4, snapshot.getWordsReturned());
+        assertEquals(1, snapshot.getNodesVisited().getCount());
+    }
+
+    @Test
+    public void metricsAreReadableThroughJmx() throws Exception {
+        prefixMatches.contains("abcd");
+        ObjectName name = metrics.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            CompositeData contains = (CompositeData) server.getAttribute(name,
+                    "Contains");
+            assertEquals(1L, contains.get("count"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.prefixmatches;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ParserTest {
+
+    @Test
+    public void parseSkipsTokensWithNotLetters() throws IOException {
+        List<String> words = new ArrayList<>();
+        int count = Parser.parse(new StringReader(
+                "  one Two\tthr3e don't\n\nfour\r\nfive"), words::add);
+        assertEquals(4, count);
+        assertEquals(Arrays.asList("one", "Two", "four", "five"), words);
+    }
+
+    @Test
+    public void parseLongToken() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            builder.append('a');
+        }
+        List<String> words = new ArrayList<>();
+        Parser.parse(new StringReader(builder + " b"), words::add);
+        assertEquals(Arrays.asList(builder.toString(), "b"), words);
+    }
+
+    @Test
+    public void parseAnyLetters() throws IOException {
+        List<String> words = new ArrayList<>();
+        int count = Parser.parse(new StringReader(
+                "слово Straße thr3e Їжак \uD835\uDC00b \uD83D\uDE00"),
+                words::add, true);
+        assertEquals(4, count);
+        assertEquals(Arrays.asList("слово", "Straße", "Їжак",
+                "\uD835\uDC00b"), words);
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void parseMissingFileShouldRiseException() throws IOException {
+        new Parser("no-such-file.txt").parse(word -> { });
+    }
+}
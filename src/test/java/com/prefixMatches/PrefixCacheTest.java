@@ -0,0 +1,84 @@
+package com.prefixmatches;
+
+import com.prefixmatches.trie.RWayTrie;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PrefixCacheTest {
+    private PrefixCache cache;
+    private PrefixMatches prefixMatches;
+
+    @Before
+    public void setUp() {
+        cache = new PrefixCache(2);
+        prefixMatches = new PrefixMatches(new RWayTrie(), cache);
+        prefixMatches.add("abcd weqis weqosx skqm weqiox");
+    }
+
+    private List<String> words(String pref, int k) {
+        List<String> words = new ArrayList<>();
+        for (String s : prefixMatches.wordsWithPrefix(pref, k)) {
+            words.add(s);
+        }
+        return words;
+    }
+
+    @Test
+    public void secondQueryIsHit() {
+        words("we", 4);
+        words("we", 4);
+        words("we", 3);
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        words("we", 4);
+        words("sk", 3);
+        words("we", 4);
+        words("ab", 3);
+        words("we", 4);
+        words("sk", 3);
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.hits());
+        assertEquals(4, cache.misses());
+    }
+
+    @Test
+    public void addDropsOnlyAffectedResults() {
+        words("we", 5);
+        words("sk", 3);
+        prefixMatches.add("weqa");
+        assertEquals(1, cache.size());
+        assertEquals(4, words("we", 5).size());
+        prefixMatches.add("weqwerty");
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void deleteDropsResult() {
+        words("we", 5);
+        prefixMatches.delete("weqis");
+        assertEquals(0, cache.size());
+        assertEquals(2, words("we", 5).size());
+    }
+
+    @Test
+    public void staleResultIsNotStored() {
+        long generation = cache.generation();
+        prefixMatches.add("weqa");
+        cache.put("we", 4, new ArrayList<>(), generation);
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacityShouldRiseException() {
+        new PrefixCache(0);
+    }
+}
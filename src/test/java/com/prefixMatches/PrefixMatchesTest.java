@@ -1,5 +1,7 @@
 package com.prefixmatches;
 
+import com.prefixmatches.trie.ArrayTrie;
+import com.prefixmatches.trie.CopyOnWriteTrie;
 import com.prefixmatches.trie.RWayTrie;
 import com.prefixmatches.trie.Trie;
 import org.junit.Before;
@@ -11,7 +13,12 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -146,4 +153,84 @@ public class PrefixMatchesTest {
         prefixMatches.add("abcd weqis weqosx skqm weqiox");
         assertEquals(false, prefixMatches.wordsWithPrefix("w", 4).iterator().hasNext());
     }
+
+    @Test
+    public void wordsWithPrefixesSameAsOneByOne() {
+        PrefixMatches matches = new PrefixMatches(new RWayTrie());
+        matches.add("abcd weqis weqosx skqm weqiox weqioxa");
+        String[] prefs = {"weqi", "we", "w", "sk"};
+        int[] ks = {2, 3, 4, 3};
+        List<List<String>> actual = matches.wordsWithPrefixes(prefs, ks);
+        assertEquals(Arrays.asList("weqis"), actual.get(0));
+        for (int i = 0; i < prefs.length; i++) {
+            List<String> expected = new ArrayList<>();
+            for (String s : matches.wordsWithPrefix(prefs[i], ks[i])) {
+                expected.add(s);
+            }
+            assertEquals(expected, actual.get(i));
+        }
+    }
+
+    @Test
+    public void loadPassesWordsInBoundedBatches() throws IOException {
+        List<Integer> batches = new ArrayList<>();
+        PrefixMatches matches = new PrefixMatches(new RWayTrie() {
+            @Override
+            public void addAll(Collection<Trie.Tuple> tuples) {
+                batches.add(tuples.size());
+                super.addAll(tuples);
+            }
+        });
+        int words = 100000;
+        assertEquals(words, matches.load(consumer -> {
+            for (int i = 0; i < words; i++) {
+                StringBuilder word = new StringBuilder();
+                for (int n = i; n > 0 || word.length() < 4; n /= 26) {
+                    word.append((char) ('a' + n % 26));
+                }
+                consumer.accept(word.toString());
+            }
+            return words;
+        }));
+        assertEquals(words, matches.size());
+        assertEquals(Arrays.asList(1 << 16, words - (1 << 16)), batches);
+    }
+
+    @Test
+    public void loadStreamsWordsIntoOtherTries() throws IOException {
+        List<String> added = new ArrayList<>();
+        PrefixMatches matches = new PrefixMatches(new ArrayTrie() {
+            @Override
+            public void add(Trie.Tuple tuple) {
+                added.add(tuple.getTerm());
+                super.add(tuple);
+            }
+
+            @Override
+            public void addAll(Collection<Trie.Tuple> tuples) {
+                throw new AssertionError("words are buffered");
+            }
+        });
+        assertEquals(3, matches.load(consumer -> {
+            consumer.accept("abcd");
+            consumer.accept("ab");
+            consumer.accept("weqis");
+            consumer.accept("skqm");
+            return 4;
+        }));
+        assertEquals(Arrays.asList("abcd", "weqis", "skqm"), added);
+    }
+
+    @Test
+    public void addToSnapshotsIsOneVersion() {
+        PrefixMatches snapshots = new PrefixMatches(new CopyOnWriteTrie());
+        assertEquals(3, snapshots.add("abcd weqis", "weqiox"));
+        assertEquals(1, snapshots.version());
+        assertEquals(3, snapshots.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void versionWithoutSnapshotsShouldRiseException() {
+        new PrefixMatches(new RWayTrie()).version();
+    }
 }
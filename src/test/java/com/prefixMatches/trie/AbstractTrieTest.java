@@ -0,0 +1,265 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public abstract class AbstractTrieTest {
+    protected Trie trie;
+
+    protected abstract Trie createTrie();
+
+    @Before
+    public void setUp(){
+        trie = createTrie();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void addNullTupleToTrieShouldRiseException(){
+        trie.add(null);
+    }
+
+    @Test
+    public void addDiffTuplesToTrie(){
+        trie = createTrie();
+        trie.add(new Trie.Tuple("tupleone", 8));
+        trie.add(new Trie.Tuple("tupletwo", 8));
+        int expected = 2;
+        assertEquals(expected, trie.size());
+    }
+
+    @Test
+    public void addSameTuplesToTrie(){
+        trie.add(new Trie.Tuple("tupleone", 8));
+        trie.add(new Trie.Tuple("tupleone", 8));
+        int expected = 1;
+        assertEquals(expected, trie.size());
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void containsNullInTrieShouldRiseException(){
+        trie.contains(null);
+    }
+
+    @Test
+    public void containsTupleInTrieShouldBeTrue(){
+        trie.add(new Trie.Tuple("tupleone", 8));
+        boolean expected = true;
+        assertEquals(expected, trie.contains("tupleone"));
+    }
+
+    @Test
+    public void containsInTrieShouldBeTrueWhateverWeight(){
+        trie.add(new Trie.Tuple("tupleone", 7));
+        boolean expected = true;
+        assertEquals(expected, trie.contains("tupleone"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeWeightShouldRiseException(){
+        trie.add(new Trie.Tuple("tupleone", -1));
+    }
+
+    @Test
+    public void containsInTrieShouldBeFalseReasonTerm(){
+        trie.add(new Trie.Tuple("tupleono", 8));
+        boolean expected = false;
+        assertEquals(expected, trie.contains("tupleone"));
+    }
+
+
+    @Test(expected = NullPointerException.class)
+    public void deleteNullFromTrieShouldRiseException(){
+        trie.delete(null);
+    }
+
+    @Test
+    public void deleteFromTrieShouldBeTrue(){
+        trie.add(new Trie.Tuple("tuple", 5));
+        boolean expected = true;
+        assertEquals(expected, trie.delete("tuple"));
+    }
+
+    @Test
+    public void deleteFromTrieDecreasesSize(){
+        trie.add(new Trie.Tuple("tuple", 5));
+        trie.add(new Trie.Tuple("tupleone", 8));
+        trie.delete("tuple");
+        int expected = 1;
+        assertEquals(expected, trie.size());
+    }
+
+    @Test
+    public void deleteFromTrieShouldBeFalse(){
+        trie.add(new Trie.Tuple("tuple", 5));
+        boolean expected = false;
+        assertEquals(expected, trie.delete("adfsa"));
+    }
+
+    @Test
+    public void deleteFromTrieSubstringShouldBeFalse(){
+        trie.add(new Trie.Tuple("tuple", 5));
+        boolean expected = false;
+        assertEquals(expected, trie.delete("tupl"));
+    }
+
+    @Test
+    public void wordsDifferent(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.add(new Trie.Tuple("tuplethree",10));
+        int expected = 3;
+        int actual = 0;
+        for (String s:trie.words()){
+            actual++;
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void wordsSame(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        int expected = 2;
+        int actual = 0;
+        for (String s:trie.words()){
+            actual++;
+        }
+        assertEquals(expected,actual);
+    }
+
+    @Test
+    public void wordsWithPrefixDifferent(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.add(new Trie.Tuple("tuplethree",10));
+        int expected = 3;
+        int actual = 0;
+        for (String s:trie.wordsWithPrefix("tuple")){
+            actual++;
+        }
+        assertEquals(expected,actual);
+    }
+
+    @Test
+    public void wordsWithPrefixSame(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        int expected = 2;
+        int actual = 0;
+        for (String s:trie.wordsWithPrefix("tuple")){
+            actual++;
+        }
+        assertEquals(expected,actual);
+    }
+
+    @Test
+    public void wordsWithPrefixShouldBeEmpty(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        boolean expected = false;
+        assertEquals(expected,trie.wordsWithPrefix("abc").iterator().hasNext());
+    }
+
+    @Test
+    public void wordsWithPrefixDepthLimited(){
+        trie.add(new Trie.Tuple("tup",3));
+        trie.add(new Trie.Tuple("tuple",5));
+        trie.add(new Trie.Tuple("tupleone",8));
+        int expected = 2;
+        int actual = 0;
+        for (String s:trie.wordsWithPrefix("tu", 5)){
+            actual++;
+        }
+        assertEquals(expected,actual);
+    }
+
+    @Test
+    public void wordsWithPrefixDepthLimitedShouldBeEmpty(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        boolean expected = false;
+        assertEquals(expected,trie.wordsWithPrefix("tu", 5).iterator().hasNext());
+    }
+
+    @Test
+    public void wordsWithPrefixDepthLimitedBreadthFirstOrder(){
+        trie.add(new Trie.Tuple("tupleb",6));
+        trie.add(new Trie.Tuple("tuplea",6));
+        trie.add(new Trie.Tuple("tuple",5));
+        trie.add(new Trie.Tuple("tup",3));
+        StringBuilder actual = new StringBuilder();
+        for (String s:trie.wordsWithPrefix("tu", 6)){
+            actual.append(s).append(' ');
+        }
+        assertEquals("tup tuple tuplea tupleb ",actual.toString());
+    }
+
+    @Test
+    public void weightOfWord(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupleone",3));
+        assertEquals(3, trie.weight("tupleone"));
+        assertEquals(-1, trie.weight("tuple"));
+        assertEquals(-1, trie.weight("tupletwo"));
+    }
+
+    @Test
+    public void topKByWeight(){
+        trie.add(new Trie.Tuple("tup",5));
+        trie.add(new Trie.Tuple("tupleone",1));
+        trie.add(new Trie.Tuple("tupletwo",9));
+        trie.add(new Trie.Tuple("tuplethree",5));
+        trie.add(new Trie.Tuple("abc",100));
+        List<String> expected = new ArrayList<>();
+        expected.add("tupletwo");
+        expected.add("tup");
+        expected.add("tuplethree");
+        assertEquals(expected, trie.topK("tu", 3));
+    }
+
+    @Test
+    public void topKAfterLowerWeightAndDelete(){
+        trie.add(new Trie.Tuple("tupleone",9));
+        trie.add(new Trie.Tuple("tupletwo",5));
+        trie.add(new Trie.Tuple("tuplethree",1));
+        trie.add(new Trie.Tuple("tupleone",2));
+        trie.delete("tupletwo");
+        List<String> expected = new ArrayList<>();
+        expected.add("tupleone");
+        expected.add("tuplethree");
+        assertEquals(expected, trie.topK("tuple", 5));
+    }
+
+    @Test
+    public void topKNoPrefix(){
+        trie.add(new Trie.Tuple("tup",5));
+        assertTrue(trie.topK("abc", 3).isEmpty());
+    }
+
+    @Test
+    public void wordStreamSameAsWordsWithPrefix(){
+        trie.add(new Trie.Tuple("tuple",5));
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.add(new Trie.Tuple("turn",4));
+        List<String> expected = new ArrayList<>();
+        for (String s:trie.wordsWithPrefix("tup")){
+            expected.add(s);
+        }
+        List<String> actual = trie.wordStream("tup").parallel()
+                .collect(Collectors.toList());
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+        assertEquals(4, trie.wordStream().count());
+    }
+}
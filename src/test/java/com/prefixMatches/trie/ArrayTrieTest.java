@@ -0,0 +1,114 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ArrayTrieTest extends AbstractTrieTest {
+
+    @Override
+    protected Trie createTrie() {
+        return new ArrayTrie(1);
+    }
+
+    @Test
+    public void deletedNodesAreReused(){
+        LinkedTrie linkedTrie = (LinkedTrie) trie;
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        int nodes = linkedTrie.allocatedNodes();
+        trie.delete("tupletwo");
+        trie.add(new Trie.Tuple("tuplesix",8));
+        assertEquals(nodes, linkedTrie.allocatedNodes());
+        assertEquals(true, trie.contains("tupleone"));
+        assertEquals(true, trie.contains("tuplesix"));
+        assertEquals(false, trie.contains("tupletwo"));
+        assertEquals(false, trie.contains("tuplet"));
+        StringBuilder actual = new StringBuilder();
+        for (String s:trie.wordsWithPrefix("tuple")){
+            actual.append(s).append(' ');
+        }
+        assertEquals("tupleone tuplesix ", actual.toString());
+    }
+
+    @Test
+    public void childTableFollowsAddAndDelete(){
+        String[] words = {"tc", "ta", "t-", "tz", "tb"};
+        for (String word : words) {
+            trie.add(new Trie.Tuple(word, 2));
+        }
+        trie.delete("ta");
+        assertEquals(false, trie.contains("ta"));
+        assertEquals(true, trie.contains("tb"));
+        assertEquals(true, trie.contains("t-"));
+        for (String word : words) {
+            trie.delete(word);
+        }
+        for (String word : new String[]{"uc", "ua", "ub"}) {
+            trie.add(new Trie.Tuple(word, 2));
+        }
+        assertEquals(false, trie.contains("tz"));
+        assertEquals(true, trie.contains("ub"));
+        trie.add(new Trie.Tuple("ta", 2));
+        assertEquals(true, trie.contains("ta"));
+        assertEquals(false, trie.contains("tc"));
+        StringBuilder actual = new StringBuilder();
+        for (String s:trie.words()){
+            actual.append(s).append(' ');
+        }
+        assertEquals("ta ua ub uc ", actual.toString());
+    }
+
+    @Test
+    public void wordsSameAsRWayTrie(){
+        Trie expected = new RWayTrie();
+        String[] words = {"abc", "abd", "ab", "b", "bcd", "abcde", "ba",
+                "aaa", "abcd", "zz"};
+        for (String word : words) {
+            trie.add(new Trie.Tuple(word, word.length()));
+            expected.add(new Trie.Tuple(word, word.length()));
+        }
+        trie.delete("abcd");
+        expected.delete("abcd");
+        for (String pref : new String[]{"", "a", "ab", "abc", "b", "x"}) {
+            for (int depth = 0; depth < 6; depth++) {
+                StringBuilder want = new StringBuilder();
+                for (String s : expected.wordsWithPrefix(pref, depth)) {
+                    want.append(s).append(' ');
+                }
+                StringBuilder actual = new StringBuilder();
+                for (String s : trie.wordsWithPrefix(pref, depth)) {
+                    actual.append(s).append(' ');
+                }
+                assertEquals(want.toString(), actual.toString());
+            }
+        }
+    }
+
+    @Test
+    public void unboundedWordsSameAsRWayTrie(){
+        Trie expected = new RWayTrie();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int n = i * 7919; n > 0 || word.length() < 2; n /= 26) {
+                word.append((char) ('a' + n % 26));
+            }
+            trie.add(new Trie.Tuple(word.toString(), word.length()));
+            expected.add(new Trie.Tuple(word.toString(), word.length()));
+        }
+        for (String pref : new String[]{"", "a", "ab", "x"}) {
+            List<String> want = new ArrayList<>();
+            for (String s : expected.wordsWithPrefix(pref)) {
+                want.add(s);
+            }
+            List<String> actual = new ArrayList<>();
+            for (String s : trie.wordsWithPrefix(pref)) {
+                actual.add(s);
+            }
+            assertEquals(want, actual);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrentTrieTest extends AbstractTrieTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int WORDS = 5000;
+
+    @Override
+    protected Trie createTrie() {
+        return new ConcurrentTrie();
+    }
+
+    private static String word(int i) {
+        StringBuilder builder = new StringBuilder();
+        for (int n = i; n > 0 || builder.length() < 3; n /= 26) {
+            builder.append((char) ('a' + n % 26));
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void concurrentAddDeleteAndRead() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        CyclicBarrier phase = new CyclicBarrier(WRITERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger deleted = new AtomicInteger();
+        int[] sizes = new int[2];
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < WORDS; i++) { //all writers, same words
+                    String s = word(i);
+                    trie.add(new Trie.Tuple(s, s.length()));
+                }
+                if (phase.await() == 0) {
+                    sizes[0] = trie.size();
+                }
+                phase.await();
+                for (int i = 0; i < WORDS; i += 2) {
+                    if (trie.delete(word(i))) {
+                        deleted.incrementAndGet();
+                    }
+                }
+                if (phase.await() == 0) {
+                    sizes[1] = trie.size();
+                }
+                phase.await();
+                for (int i = 0; i < WORDS; i += 2) { //adds race with deletes
+                    String s = word(i);
+                    if (writer % 2 == 0) {
+                        trie.add(new Trie.Tuple(s, s.length()));
+                    } else {
+                        trie.delete(s);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    for (String s : trie.wordsWithPrefix(word(1), 4)) {
+                        assertTrue(s.startsWith(word(1)));
+                    }
+                    trie.contains(word(2));
+                    assertTrue(trie.size() >= 0);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : writers) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        for (Future<?> future : readers) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(WORDS, sizes[0]);
+        assertEquals(WORDS / 2, deleted.get());
+        assertEquals(WORDS / 2, sizes[1]);
+        int counted = 0;
+        for (String s : trie.words()) {
+            counted++;
+        }
+        assertEquals(counted, trie.size());
+        for (int i = 1; i < WORDS; i += 2) {
+            assertTrue(trie.contains(word(i)));
+        }
+    }
+}
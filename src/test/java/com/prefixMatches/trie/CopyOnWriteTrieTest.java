@@ -0,0 +1,76 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CopyOnWriteTrieTest extends AbstractTrieTest {
+
+    @Override
+    protected Trie createTrie() {
+        return new CopyOnWriteTrie();
+    }
+
+    @Test
+    public void versionGrowsWithChanges(){
+        CopyOnWriteTrie cow = new CopyOnWriteTrie();
+        assertEquals(0, cow.version());
+        cow.add(new Trie.Tuple("tuple",5));
+        assertEquals(1, cow.version());
+        cow.delete("abc");
+        assertEquals(1, cow.version());
+        cow.delete("tuple");
+        assertEquals(2, cow.version());
+    }
+
+    @Test
+    public void snapshotDoesNotSeeLaterChanges(){
+        CopyOnWriteTrie cow = new CopyOnWriteTrie();
+        cow.add(new Trie.Tuple("tupleone",8));
+        Trie snapshot = cow.snapshot();
+        cow.add(new Trie.Tuple("tupletwo",8));
+        cow.delete("tupleone");
+        assertEquals(true, snapshot.contains("tupleone"));
+        assertEquals(false, snapshot.contains("tupletwo"));
+        assertEquals(1, snapshot.size());
+        assertEquals(false, cow.contains("tupleone"));
+        assertEquals(true, cow.contains("tupletwo"));
+    }
+
+    @Test
+    public void batchIsPublishedAtOnce(){
+        CopyOnWriteTrie cow = new CopyOnWriteTrie();
+        cow.add(new Trie.Tuple("tupleone",8));
+        long version = cow.update(batch -> {
+            batch.add(new Trie.Tuple("tupletwo",8));
+            batch.add(new Trie.Tuple("tuplethree",10));
+            assertEquals(false, cow.contains("tupletwo"));
+            assertEquals(true, batch.contains("tupletwo"));
+            batch.delete("tupleone");
+        });
+        assertEquals(2, version);
+        assertEquals(2, cow.size());
+        assertEquals(false, cow.contains("tupleone"));
+    }
+
+    @Test
+    public void failedBatchIsNotPublished(){
+        CopyOnWriteTrie cow = new CopyOnWriteTrie();
+        cow.add(new Trie.Tuple("tupleone",8));
+        try {
+            cow.update(batch -> {
+                batch.add(new Trie.Tuple("tupletwo",8));
+                batch.delete(null);
+            });
+            fail();
+        } catch (NullPointerException e) {
+            assertEquals(1, cow.version());
+            assertEquals(false, cow.contains("tupletwo"));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotIsReadOnly(){
+        new CopyOnWriteTrie().snapshot().add(new Trie.Tuple("tuple",5));
+    }
+}
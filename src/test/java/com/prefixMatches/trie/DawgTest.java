@@ -0,0 +1,84 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DawgTest {
+    private Trie trie;
+
+    @Before
+    public void setUp(){
+        trie = new Dawg();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void addNullTupleToTrieShouldRiseException(){
+        trie.add(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addUnsortedShouldRiseException(){
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.add(new Trie.Tuple("tupleone",8));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void topKShouldRiseException(){
+        trie.add(new Trie.Tuple("tuple",5));
+        trie.topK("tu", 3);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void deleteShouldRiseException(){
+        trie.add(new Trie.Tuple("tuple",5));
+        trie.delete("tuple");
+    }
+
+    @Test
+    public void addSameTuplesToTrie(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupleone",8));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    public void containsWithSharedSuffixes(){
+        trie.add(new Trie.Tuple("playing",7));
+        trie.add(new Trie.Tuple("praying",7));
+        assertEquals(false, trie.contains("play"));
+        assertEquals(false, trie.contains("pray"));
+    }
+
+    @Test
+    public void containsAfterSharedSuffixes(){
+        trie.add(new Trie.Tuple("play",4));
+        trie.add(new Trie.Tuple("playing",7));
+        trie.add(new Trie.Tuple("praying",7));
+        assertEquals(true, trie.contains("play"));
+        assertEquals(false, trie.contains("pray"));
+        assertEquals(true, trie.contains("praying"));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    public void wordsWithPrefixBreadthFirstOrder(){
+        trie.add(new Trie.Tuple("play",4));
+        trie.add(new Trie.Tuple("playing",7));
+        trie.add(new Trie.Tuple("plays",5));
+        trie.add(new Trie.Tuple("praying",7));
+        trie.add(new Trie.Tuple("prays",5));
+        StringBuilder actual = new StringBuilder();
+        for (String s:trie.wordsWithPrefix("pl")){
+            actual.append(s).append(' ');
+        }
+        assertEquals("play plays playing ", actual.toString());
+    }
+
+    @Test
+    public void wordsWithPrefixShouldBeEmpty(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        assertEquals(false,trie.wordsWithPrefix("abc").iterator().hasNext());
+    }
+}
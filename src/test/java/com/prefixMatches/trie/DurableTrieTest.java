@@ -0,0 +1,151 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DurableTrieTest {
+    private Path directory;
+    private DurableTrie trie;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("durable");
+        trie = DurableTrie.open(directory);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        trie.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                path.toFile().delete();
+            });
+        }
+    }
+
+    @Test
+    public void addAndDeleteSurviveReopen() throws IOException {
+        trie.add(new Trie.Tuple("tup",3));
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("abc",3));
+        trie.delete("abc");
+        trie.close();
+
+        trie = DurableTrie.open(directory);
+
+        assertTrue(trie.contains("tup"));
+        assertTrue(trie.contains("tupleone"));
+        assertFalse(trie.contains("abc"));
+    }
+
+    @Test
+    public void compactThenAddSurviveReopen() throws IOException {
+        trie.add(new Trie.Tuple("tup",3));
+        trie.add(new Trie.Tuple("abc",3));
+        trie.compact();
+        trie.delete("tup");
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.close();
+
+        trie = DurableTrie.open(directory);
+
+        assertFalse(trie.contains("tup"));
+        assertTrue(trie.contains("abc"));
+        assertTrue(trie.contains("tupletwo"));
+        assertTrue(Files.exists(directory.resolve(DurableTrie.SNAPSHOT)));
+    }
+
+    @Test
+    public void tornTailOfLogIsIgnored() throws IOException {
+        trie.add(new Trie.Tuple("tup",3));
+        trie.add(new Trie.Tuple("abc",3));
+        trie.close();
+        try (RandomAccessFile log = new RandomAccessFile(
+                directory.resolve(DurableTrie.LOG).toFile(), "rw")) {
+            log.setLength(log.length() - 2);
+        }
+
+        trie = DurableTrie.open(directory);
+        trie.add(new Trie.Tuple("tuple",5));
+        trie.close();
+        trie = DurableTrie.open(directory);
+
+        assertTrue(trie.contains("tup"));
+        assertFalse(trie.contains("abc"));
+        assertTrue(trie.contains("tuple"));
+    }
+
+    @Test
+    public void unfinishedCompactionIsReplayed() throws IOException {
+        trie.add(new Trie.Tuple("tup",3));
+        trie.close();
+        Files.move(directory.resolve(DurableTrie.LOG),
+                directory.resolve(DurableTrie.OLD_LOG));
+
+        trie = DurableTrie.open(directory);
+
+        assertTrue(trie.contains("tup"));
+        assertFalse(Files.exists(directory.resolve(DurableTrie.OLD_LOG)));
+    }
+
+    @Test
+    public void syncWritesAreOnDisk() throws IOException {
+        trie.close();
+        trie = DurableTrie.open(directory, true);
+
+        trie.add(new Trie.Tuple("tup",3));
+
+        assertTrue(Files.size(directory.resolve(DurableTrie.LOG)) > 0);
+    }
+
+    @Test
+    public void wordsWhileDeletingAreWholeWords() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            trie.add(new Trie.Tuple(word(i), 5));
+        }
+        Thread writer = new Thread(() -> {
+            for (int round = 0; round < 200; round++) {
+                for (int i = 0; i < 2000; i++) {
+                    trie.delete(word(i));
+                }
+                for (int i = 0; i < 2000; i++) {
+                    trie.add(new Trie.Tuple(word(i), 5));
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            for (String word : trie.words()) {
+                assertEquals(5, word.length());
+            }
+            assertTrue(trie.wordStream("a").allMatch(w -> w.length() == 5));
+        }
+        writer.join();
+        assertEquals(2000, trie.size());
+    }
+
+    private static String word(int i) {
+        char[] letters = new char[5];
+        for (int j = letters.length - 1; j >= 0; j--) {
+            letters[j] = (char) ('a' + i % 26);
+            i /= 26;
+        }
+        return new String(letters);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addAfterCloseShouldRiseException() throws IOException {
+        trie.close();
+        trie.add(new Trie.Tuple("tup",3));
+    }
+}
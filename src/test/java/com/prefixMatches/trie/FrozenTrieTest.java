@@ -0,0 +1,133 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FrozenTrieTest {
+    private RWayTrie source;
+    private Trie trie;
+
+    @Before
+    public void setUp(){
+        source = new RWayTrie();
+        source.add(new Trie.Tuple("tup",3));
+        source.add(new Trie.Tuple("tupleone",8));
+        source.add(new Trie.Tuple("tupletwo",8));
+        source.add(new Trie.Tuple("tuplethree",10));
+        source.add(new Trie.Tuple("abc",3));
+        trie = new FrozenTrie(source.words());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addShouldRiseException(){
+        trie.add(new Trie.Tuple("tuple",5));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void deleteShouldRiseException(){
+        trie.delete("tup");
+    }
+
+    @Test
+    public void size(){
+        assertEquals(5, trie.size());
+    }
+
+    @Test
+    public void containsWord(){
+        assertEquals(true, trie.contains("tupletwo"));
+        assertEquals(true, trie.contains("tup"));
+    }
+
+    @Test
+    public void containsPrefixShouldBeFalse(){
+        assertEquals(false, trie.contains("tuple"));
+        assertEquals(false, trie.contains("tupleon"));
+        assertEquals(false, trie.contains("xyz"));
+    }
+
+    @Test
+    public void wordsBreadthFirstOrder(){
+        StringBuilder actual = new StringBuilder();
+        for (String s:trie.words()){
+            actual.append(s).append(' ');
+        }
+        assertEquals("abc tup tupleone tupletwo tuplethree ",
+                actual.toString());
+    }
+
+    @Test
+    public void wordsWithPrefixDepthLimited(){
+        int actual = 0;
+        for (String s:trie.wordsWithPrefix("tu", 8)){
+            actual++;
+        }
+        assertEquals(3, actual);
+    }
+
+    @Test
+    public void wordsWithPrefixShouldBeEmpty(){
+        assertEquals(false, trie.wordsWithPrefix("abd").iterator().hasNext());
+    }
+
+    @Test
+    public void saveAndLoadSameWords() throws IOException {
+        Path file = Files.createTempFile("trie", ".bin");
+        try {
+            ((FrozenTrie) trie).save(file);
+            Trie loaded = FrozenTrie.load(file);
+            assertEquals(trie.size(), loaded.size());
+            assertEquals(words(trie), words(loaded));
+            assertEquals(true, loaded.contains("tupletwo"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void loadSnapshotOfRWayTrie() throws IOException {
+        Path file = Files.createTempFile("trie", ".bin");
+        try {
+            source.save(file);
+            Trie loaded = FrozenTrie.load(file);
+            assertEquals(words(trie), words(loaded));
+            assertEquals(false, loaded.contains("tuple"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void weightsOfRWayTrieSurviveSaveAndLoad() throws IOException {
+        source.add(new Trie.Tuple("tup",50));
+        source.add(new Trie.Tuple("tupletwo",20));
+        Path file = Files.createTempFile("trie", ".bin");
+        try {
+            FrozenTrie frozen = new FrozenTrie(source);
+            assertEquals(source.topK("tu", 3), frozen.topK("tu", 3));
+            frozen.save(file);
+            RWayTrie loaded = RWayTrie.load(file);
+            assertEquals(Arrays.asList("tup", "tupletwo", "tuplethree"),
+                    loaded.topK("tu", 3));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<String> words(Trie trie) {
+        List<String> words = new ArrayList<>();
+        for (String s : trie.words()) {
+            words.add(s);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,112 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedTrieTest {
+    private RWayTrie source;
+    private Path file;
+    private Trie trie;
+
+    @Before
+    public void setUp() throws IOException {
+        source = new RWayTrie();
+        source.add(new Trie.Tuple("tup",3));
+        source.add(new Trie.Tuple("tupleone",8));
+        source.add(new Trie.Tuple("tupletwo",8));
+        source.add(new Trie.Tuple("tuplethree",10));
+        source.add(new Trie.Tuple("abc",3));
+        file = Files.createTempFile("trie", ".bin");
+        source.save(file);
+        trie = MappedTrie.open(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addShouldRiseException(){
+        trie.add(new Trie.Tuple("tuple",5));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void deleteShouldRiseException(){
+        trie.delete("tup");
+    }
+
+    @Test
+    public void size(){
+        assertEquals(5, trie.size());
+    }
+
+    @Test
+    public void contains(){
+        assertEquals(true, trie.contains("tupletwo"));
+        assertEquals(true, trie.contains("tup"));
+        assertEquals(false, trie.contains("tuple"));
+        assertEquals(false, trie.contains("xyz"));
+    }
+
+    @Test
+    public void topKSameAsSource(){
+        assertEquals(source.topK("tu", 3), trie.topK("tu", 3));
+        assertEquals(10, trie.weight("tuplethree"));
+    }
+
+    @Test
+    public void wordsSameAsSource(){
+        assertEquals(words(source.words()), words(trie.words()));
+        assertEquals(words(source.wordsWithPrefix("tu", 8)),
+                words(trie.wordsWithPrefix("tu", 8)));
+        assertEquals(words(source.wordsWithPrefix("tuple")),
+                words(trie.wordsWithPrefix("tuple")));
+    }
+
+    @Test
+    public void wordsWithPrefixShouldBeEmpty(){
+        assertEquals(false, trie.wordsWithPrefix("abd").iterator().hasNext());
+    }
+
+    @Test(expected = IOException.class)
+    public void openNotSnapshotShouldRiseException() throws IOException {
+        Files.write(file, "abcd weqis weqosx skqm".getBytes("UTF-8"));
+        MappedTrie.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void openHugeNodeCountShouldRiseException() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(8, 429496727); //offsets wrap around int
+        Files.write(file, bytes);
+        MappedTrie.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void openFirstChildOutOfRangeShouldRiseException()
+            throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(16 + 4, Integer.MAX_VALUE);
+        Files.write(file, bytes);
+        MappedTrie.open(file);
+    }
+
+    private static List<String> words(Iterable<String> iterable) {
+        List<String> words = new ArrayList<>();
+        for (String s : iterable) {
+            words.add(s);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,72 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class OffHeapTrieTest extends AbstractTrieTest {
+
+    @Override
+    protected Trie createTrie() {
+        return new OffHeapTrie();
+    }
+
+    @After
+    public void tearDown(){
+        ((OffHeapTrie) trie).close();
+    }
+
+    @Test
+    public void pagesGrow(){
+        OffHeapTrie offHeapTrie = (OffHeapTrie) trie;
+        long before = offHeapTrie.offHeapBytes();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            word.setLength(0);
+            for (int n = i; n > 0 || word.length() < 4; n /= 26) {
+                word.append((char) ('a' + n % 26));
+            }
+            trie.add(new Trie.Tuple(word.toString(), word.length()));
+        }
+        assertEquals(100000, trie.size());
+        assertTrue(offHeapTrie.offHeapBytes() > before);
+        assertEquals(true, trie.contains("aaaa"));
+        assertEquals(true, trie.contains(word.toString()));
+        int count = 0;
+        for (String s : trie.words()) {
+            count++;
+        }
+        assertEquals(100000, count);
+    }
+
+    @Test
+    public void deletedNodesAreReused(){
+        LinkedTrie linkedTrie = (LinkedTrie) trie;
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        int nodes = linkedTrie.allocatedNodes();
+        long bytes = ((OffHeapTrie) trie).offHeapBytes();
+        trie.delete("tupletwo");
+        trie.add(new Trie.Tuple("tuplesix",8));
+        assertEquals(nodes, linkedTrie.allocatedNodes());
+        assertEquals(bytes, ((OffHeapTrie) trie).offHeapBytes());
+        assertEquals(true, trie.contains("tupleone"));
+        assertEquals(true, trie.contains("tuplesix"));
+        assertEquals(false, trie.contains("tupletwo"));
+        assertEquals(false, trie.contains("tuplet"));
+        StringBuilder actual = new StringBuilder();
+        for (String s:trie.wordsWithPrefix("tuple")){
+            actual.append(s).append(' ');
+        }
+        assertEquals("tupleone tuplesix ", actual.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void containsAfterCloseShouldRiseException(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        ((OffHeapTrie) trie).close();
+        assertEquals(0, ((OffHeapTrie) trie).offHeapBytes());
+        trie.contains("tupleone");
+    }
+}
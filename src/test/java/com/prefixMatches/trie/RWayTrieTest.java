@@ -2,150 +2,372 @@ package com.prefixmatches.trie;
 
 import static org.junit.Assert.*;
 
-import org.junit.Before;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
 import org.junit.Test;
 
-public class RWayTrieTest {
-    private Trie trie;
+public class RWayTrieTest extends AbstractTrieTest {
+
+    @Override
+    protected Trie createTrie() {
+        return new RWayTrie();
+    }
 
-    @Before
-    public void setUp(){
-        trie = new RWayTrie();
+    @Test
+    public void addAllInParallelSameAsOneByOne(){
+        List<Trie.Tuple> tuples = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int n = i * 7919; n > 0; n /= 26) {
+                builder.append((char) ('a' + n % 26));
+            }
+            String s = builder.toString();
+            tuples.add(new Trie.Tuple(s, s.length()));
+            tuples.add(new Trie.Tuple(s, s.length()));
+        }
+        Trie sequential = createTrie();
+        for (Trie.Tuple tuple : tuples) {
+            sequential.add(tuple);
+        }
+        trie.add(new Trie.Tuple("tuple", 5));
+        trie.addAll(tuples);
+        sequential.add(new Trie.Tuple("tuple", 5));
+        assertEquals(sequential.size(), trie.size());
+        List<String> expected = new ArrayList<>();
+        for (String s : sequential.words()) {
+            expected.add(s);
+        }
+        List<String> actual = new ArrayList<>();
+        for (String s : trie.words()) {
+            actual.add(s);
+        }
+        assertEquals(expected, actual);
     }
 
-    @Test(expected = NullPointerException.class)
-    public void addNullTupleToTrieShouldRiseException(){
-        trie.add(null);
+    @Test
+    public void countWithPrefix(){
+        trie.add(new Trie.Tuple("tup",3));
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.add(new Trie.Tuple("abc",3));
+        trie.delete("tupleone");
+        assertEquals(2, trie.countWithPrefix("tu"));
+        assertEquals(1, trie.countWithPrefix("tuple"));
+        assertEquals(3, trie.countWithPrefix(""));
+        assertEquals(0, trie.countWithPrefix("x"));
     }
 
     @Test
-    public void addDiffTuplesToTrie(){
-        trie = new RWayTrie();
-        trie.add(new Trie.Tuple("tupleone", 8));
-        trie.add(new Trie.Tuple("tupletwo", 8));
-        int expected = 2;
-        assertEquals(expected, trie.size());
+    public void wordsWithPrefixByPages(){
+        trie.add(new Trie.Tuple("tup",3));
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.add(new Trie.Tuple("tuplethree",10));
+        trie.add(new Trie.Tuple("abc",3));
+        List<String> expected = new ArrayList<>();
+        expected.add("tupleone");
+        expected.add("tuplethree");
+        assertEquals(expected, trie.wordsWithPrefix("tu", 1, 2));
+        assertEquals(1, trie.wordsWithPrefix("tu", 3, 2).size());
+        assertTrue(trie.wordsWithPrefix("tu", 4, 2).isEmpty());
     }
 
     @Test
-    public void addSameTuplesToTrie(){
-        trie.add(new Trie.Tuple("tupleone", 8));
-        trie.add(new Trie.Tuple("tupleone", 8));
-        int expected = 1;
-        assertEquals(expected, trie.size());
+    public void fuzzyWordsWithPrefixByDistance(){
+        trie.add(new Trie.Tuple("tup",3));
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tuplethree",10));
+        trie.add(new Trie.Tuple("triple",6));
+        trie.add(new Trie.Tuple("abc",3));
+        List<String> expected = new ArrayList<>();
+        expected.add("tupleone");
+        expected.add("tuplethree");
+        expected.add("triple");
+        expected.add("tup");
+        assertEquals(expected, trie.fuzzyWordsWithPrefix("tuple", 2, 5));
+        assertEquals(expected.subList(0, 2),
+                trie.fuzzyWordsWithPrefix("tupel", 2, 2));
     }
 
+    @Test
+    public void fuzzyWordsWithPrefixSameAsDefault(){
+        Trie brute = new Trie() {
+            public void add(Tuple tuple) {
+                trie.add(tuple);
+            }
+
+            public boolean contains(String word) {
+                return trie.contains(word);
+            }
 
-    @Test(expected = NullPointerException.class)
-    public void containsNullInTrieShouldRiseException(){
-        trie.contains(null);
+            public int weight(String word) {
+                return trie.weight(word);
+            }
+
+            public boolean delete(String word) {
+                return trie.delete(word);
+            }
+
+            public Iterable<String> words() {
+                return trie.words();
+            }
+
+            public Iterable<String> wordsWithPrefix(String pref) {
+                return trie.wordsWithPrefix(pref);
+            }
+
+            public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+                return trie.wordsWithPrefix(pref, maxDepth);
+            }
+
+            public int size() {
+                return trie.size();
+            }
+        };
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int n = i * 7919; n > 0; n /= 5) {
+                builder.append((char) ('a' + n % 5));
+            }
+            brute.add(new Trie.Tuple(builder.toString(), 1));
+        }
+        for (String pref : new String[]{"", "a", "abc", "edcba", "bbbbb"}) {
+            for (int edits = 0; edits <= 2; edits++) {
+                assertEquals(brute.fuzzyWordsWithPrefix(pref, edits, 50),
+                        trie.fuzzyWordsWithPrefix(pref, edits, 50));
+            }
+        }
     }
 
     @Test
-    public void containsTupleInTrieShouldBeTrue(){
-        trie.add(new Trie.Tuple("tupleone", 8));
-        boolean expected = true;
-        assertEquals(expected, trie.contains("tupleone"));
+    public void topKSameAsDefault(){
+        Trie brute = new Trie() {
+            public void add(Tuple tuple) {
+                trie.add(tuple);
+            }
+
+            public boolean contains(String word) {
+                return trie.contains(word);
+            }
+
+            public int weight(String word) {
+                return trie.weight(word);
+            }
+
+            public boolean delete(String word) {
+                return trie.delete(word);
+            }
+
+            public Iterable<String> words() {
+                return trie.words();
+            }
+
+            public Iterable<String> wordsWithPrefix(String pref) {
+                return trie.wordsWithPrefix(pref);
+            }
+
+            public Iterable<String> wordsWithPrefix(String pref, int maxDepth) {
+                return trie.wordsWithPrefix(pref, maxDepth);
+            }
+
+            public int size() {
+                return trie.size();
+            }
+        };
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int n = i * 7919; n > 0; n /= 5) {
+                builder.append((char) ('a' + n % 5));
+            }
+            brute.add(new Trie.Tuple(builder.toString(), i * 31 % 97));
+        }
+        for (String pref : new String[]{"", "a", "abc", "edcba", "x"}) {
+            for (int k : new int[]{0, 1, 10, 5000}) {
+                assertEquals(brute.topK(pref, k), trie.topK(pref, k));
+            }
+        }
     }
 
     @Test
-    public void containsInTrieShouldBeFalseReasonWeight(){
-        trie.add(new Trie.Tuple("tupleone", 7));
-        boolean expected = false;
-        assertEquals(expected, trie.contains("tupleone"));
+    public void wordsWithPrefixesSameAsOneByOne(){
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int n = i * 7919; n > 0; n /= 6) {
+                builder.append((char) ('a' + n % 6));
+            }
+            trie.add(new Trie.Tuple(builder.toString(), 1));
+        }
+        String[] prefs = {"ab", "abc", "ab", "", "f", "abcd", "zz", "bca", "b"};
+        int[] maxDepths = {4, 6, 2, 3, 9, 3, 5, 7, 1};
+        List<List<String>> actual = trie.wordsWithPrefixes(prefs, maxDepths);
+        for (int i = 0; i < prefs.length; i++) {
+            List<String> expected = new ArrayList<>();
+            for (String s : trie.wordsWithPrefix(prefs[i], maxDepths[i])) {
+                expected.add(s);
+            }
+            assertEquals(expected, actual.get(i));
+        }
     }
 
     @Test
-    public void containsInTrieShouldBeFalseReasonTerm(){
-        trie.add(new Trie.Tuple("tupleono", 8));
-        boolean expected = false;
-        assertEquals(expected, trie.contains("tupleone"));
+    public void saveAndLoadSameWords() throws IOException {
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.add(new Trie.Tuple("tuplethree",10));
+        trie.add(new Trie.Tuple("abc",3));
+        Path file = Files.createTempFile("trie", ".bin");
+        try {
+            ((RWayTrie) trie).save(file);
+            Trie loaded = RWayTrie.load(file);
+            assertEquals(trie.size(), loaded.size());
+            assertEquals(words(trie), words(loaded));
+            loaded.add(new Trie.Tuple("tuple",5));
+            assertEquals(true, loaded.contains("tuple"));
+        } finally {
+            Files.delete(file);
+        }
     }
 
+    @Test(expected = IOException.class)
+    public void loadNotSnapshotShouldRiseException() throws IOException {
+        Path file = Files.createTempFile("trie", ".bin");
+        try {
+            Files.write(file, "abcd weqis weqosx skqm".getBytes("UTF-8"));
+            RWayTrie.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
 
-    @Test(expected = NullPointerException.class)
-    public void deleteNullFromTrieShouldRiseException(){
-        trie.delete(null);
+    @Test(expected = IOException.class)
+    public void loadNegativeNodeCountShouldRiseException() throws IOException {
+        loadWithNodeCount(-1);
     }
 
-    @Test
-    public void deleteFromTrieShouldBeTrue(){
-        trie.add(new Trie.Tuple("tuple", 5));
-        boolean expected = true;
-        assertEquals(expected, trie.delete("tuple"));
+    @Test(expected = IOException.class)
+    public void loadHugeNodeCountShouldRiseException() throws IOException {
+        loadWithNodeCount(Integer.MAX_VALUE);
     }
 
-    @Test
-    public void deleteFromTrieShouldBeFalse(){
-        trie.add(new Trie.Tuple("tuple", 5));
-        boolean expected = false;
-        assertEquals(expected, trie.delete("adfsa"));
+    @Test(expected = IOException.class)
+    public void loadBadWordCountShouldRiseException() throws IOException {
+        loadPatched(bytes ->
+                ByteBuffer.wrap(bytes).putInt(12, 5).array());
     }
 
-    @Test
-    public void deleteFromTrieSubstringShouldBeFalse(){
-        trie.add(new Trie.Tuple("tuple", 5));
-        boolean expected = false;
-        assertEquals(expected, trie.delete("tupl"));
+    @Test(expected = IOException.class)
+    public void loadFirstChildOutOfRangeShouldRiseException()
+            throws IOException {
+        loadPatched(bytes ->
+                ByteBuffer.wrap(bytes).putInt(16 + 4, 9).array());
     }
 
-    @Test
-    public void wordsDifferent(){
-        trie.add(new Trie.Tuple("tupleone",8));
-        trie.add(new Trie.Tuple("tupletwo",8));
-        trie.add(new Trie.Tuple("tuplethree",10));
-        int expected = 3;
-        int actual = 0;
-        for (String s:trie.words()){
-            actual++;
+    @Test(expected = IOException.class)
+    public void loadDecreasingFirstChildShouldRiseException()
+            throws IOException {
+        loadPatched(bytes ->
+                ByteBuffer.wrap(bytes).putInt(16 + 4 * 2, 2).array());
+    }
+
+    @Test(expected = IOException.class)
+    public void loadBadLabelShouldRiseException() throws IOException {
+        loadPatched(bytes ->
+                ByteBuffer.wrap(bytes).putChar(52 + 2, 'A').array());
+    }
+
+    @Test(expected = IOException.class)
+    public void loadTruncatedShouldRiseException() throws IOException {
+        loadPatched(bytes -> Arrays.copyOf(bytes, 54));
+    }
+
+    private void loadWithNodeCount(int n) throws IOException {
+        loadPatched(bytes ->
+                ByteBuffer.wrap(bytes).putInt(8, n).array());
+    }
+
+    /**
+     * Saves "abc", the 4 nodes of which take 16 bytes of header, 5 ints of
+     * first children from offset 16, 4 ints of weights from 36 and 4 chars
+     * of labels from 52, patches the file and loads it.
+     */
+    private void loadPatched(UnaryOperator<byte[]> patch) throws IOException {
+        trie.add(new Trie.Tuple("abc",3));
+        Path file = Files.createTempFile("trie", ".bin");
+        try {
+            ((RWayTrie) trie).save(file);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, patch.apply(bytes));
+            RWayTrie.load(file);
+        } finally {
+            Files.delete(file);
         }
-        assertEquals(expected, actual);
     }
 
     @Test
-    public void wordsSame(){
-        trie.add(new Trie.Tuple("tupleone",8));
-        trie.add(new Trie.Tuple("tupleone",8));
-        trie.add(new Trie.Tuple("tupletwo",8));
-        int expected = 2;
-        int actual = 0;
-        for (String s:trie.words()){
-            actual++;
-        }
-        assertEquals(expected,actual);
+    public void saveEmpty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((RWayTrie) trie).save(out);
+        assertEquals(16 + 4 * 2 + 4 + 2, out.size());
     }
 
     @Test
-    public void wordsWithPrefixDifferent(){
-        trie.add(new Trie.Tuple("tupleone",8));
-        trie.add(new Trie.Tuple("tupletwo",8));
-        trie.add(new Trie.Tuple("tuplethree",10));
-        int expected = 3;
-        int actual = 0;
-        for (String s:trie.wordsWithPrefix("tuple")){
-            actual++;
+    public void wordStreamSortedAndSized(){
+        String[] words = {"b", "ab", "abc", "abd", "a", "bcd", "zz", "aab"};
+        for (String word : words) {
+            trie.add(new Trie.Tuple(word, word.length()));
         }
-        assertEquals(expected,actual);
+        List<String> expected = new ArrayList<>(Arrays.asList(words));
+        Collections.sort(expected);
+        assertEquals(expected, trie.wordStream().collect(Collectors.toList()));
+        assertEquals(Arrays.asList("ab", "abc", "abd"),
+                trie.wordStream("ab").collect(Collectors.toList()));
+        assertEquals(0, trie.wordStream("x").count());
+        Spliterator<String> spliterator = trie.wordStream().spliterator();
+        assertEquals(words.length, spliterator.getExactSizeIfKnown());
     }
 
     @Test
-    public void wordsWithPrefixSame(){
-        trie.add(new Trie.Tuple("tupleone",8));
-        trie.add(new Trie.Tuple("tupleone",8));
-        trie.add(new Trie.Tuple("tupletwo",8));
-        int expected = 2;
-        int actual = 0;
-        for (String s:trie.wordsWithPrefix("tuple")){
-            actual++;
+    public void wordStreamSplitsIntoParts(){
+        List<String> expected = new ArrayList<>();
+        for (char a = 'a'; a <= 'z'; a++) {
+            for (char b = 'a'; b <= 'e'; b++) {
+                String word = "q" + a + b;
+                trie.add(new Trie.Tuple(word, 3));
+                expected.add(word);
+            }
         }
-        assertEquals(expected,actual);
+        trie.add(new Trie.Tuple("q", 1));
+        expected.add(0, "q");
+        Spliterator<String> right = trie.wordStream().spliterator();
+        Spliterator<String> left = right.trySplit();
+        assertNotNull(left);
+        assertTrue(left.estimateSize() > 0 && right.estimateSize() > 0);
+        assertEquals(expected.size(),
+                left.estimateSize() + right.estimateSize());
+        List<String> actual = new ArrayList<>();
+        left.forEachRemaining(actual::add);
+        right.forEachRemaining(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(expected, trie.wordStream().parallel()
+                .collect(Collectors.toList()));
     }
 
-    @Test
-    public void wordsWithPrefixShouldBeEmpty(){
-        trie.add(new Trie.Tuple("tupleone",8));
-        trie.add(new Trie.Tuple("tupletwo",8));
-        boolean expected = false;
-        assertEquals(expected,trie.wordsWithPrefix("abc").iterator().hasNext());
+    private static List<String> words(Trie trie) {
+        List<String> words = new ArrayList<>();
+        for (String s : trie.words()) {
+            words.add(s);
+        }
+        return words;
     }
 }
@@ -0,0 +1,30 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RadixTrieTest extends AbstractTrieTest {
+
+    @Override
+    protected Trie createTrie() {
+        return new RadixTrie();
+    }
+
+    @Test
+    public void deleteMergesSplitEdge(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        trie.add(new Trie.Tuple("tupletwo",8));
+        trie.delete("tupletwo");
+        assertEquals(true, trie.contains("tupleone"));
+        assertEquals(false, trie.contains("tuple"));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    public void containsPrefixOfEdgeShouldBeFalse(){
+        trie.add(new Trie.Tuple("tupleone",8));
+        assertEquals(false, trie.contains("tuple"));
+        assertEquals(true, trie.wordsWithPrefix("tuple").iterator().hasNext());
+    }
+}
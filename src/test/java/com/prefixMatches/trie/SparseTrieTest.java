@@ -0,0 +1,45 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SparseTrieTest extends AbstractTrieTest {
+
+    @Override
+    protected Trie createTrie() {
+        return new SparseTrie();
+    }
+
+    @Test
+    public void anyLetters(){
+        trie.add(new Trie.Tuple("Straße",6));
+        trie.add(new Trie.Tuple("Strasse",7));
+        trie.add(new Trie.Tuple("їжак",4));
+        trie.add(new Trie.Tuple("їжачок",6));
+        assertEquals(true, trie.contains("Straße"));
+        assertEquals(false, trie.contains("straße"));
+        StringBuilder actual = new StringBuilder();
+        for (String s:trie.wordsWithPrefix("Stra", 7)){
+            actual.append(s).append(' ');
+        }
+        assertEquals("Straße Strasse ", actual.toString());
+        actual.setLength(0);
+        for (String s:trie.wordsWithPrefix("їж")){
+            actual.append(s).append(' ');
+        }
+        assertEquals("їжак їжачок ", actual.toString());
+    }
+
+    @Test
+    public void deleteRemovesEmptyBranch(){
+        trie.add(new Trie.Tuple("їжак",4));
+        trie.add(new Trie.Tuple("їжачок",6));
+        trie.delete("їжачок");
+        assertEquals(true, trie.contains("їжак"));
+        assertEquals(false, trie.wordsWithPrefix("їжач").iterator().hasNext());
+        trie.delete("їжак");
+        assertEquals(false, trie.words().iterator().hasNext());
+        assertEquals(0, trie.size());
+    }
+}
@@ -0,0 +1,24 @@
+package com.prefixmatches.trie;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TernarySearchTrieTest extends AbstractTrieTest {
+
+    @Override
+    protected Trie createTrie() {
+        return new TernarySearchTrie();
+    }
+
+    @Test
+    public void deleteKeepsSiblings(){
+        trie.add(new Trie.Tuple("tupleb",6));
+        trie.add(new Trie.Tuple("tuplea",6));
+        trie.add(new Trie.Tuple("tuplec",6));
+        trie.delete("tupleb");
+        assertEquals(true, trie.contains("tuplea"));
+        assertEquals(true, trie.contains("tuplec"));
+        assertEquals(2, trie.size());
+    }
+}